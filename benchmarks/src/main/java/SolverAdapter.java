@@ -0,0 +1,49 @@
+import java.io.IOException;
+
+// default package side of mazebench.MazeHandle, one solver per handle so a benchmark reuses its
+// SearchContext and queues between invocations like a long running caller would
+public class SolverAdapter implements mazebench.MazeHandle {
+
+    private final MazeGrid grid;
+    private final MazeSolver solver;
+
+    public SolverAdapter(String generator, int size, long seed) {
+        this(new MazeGenerator(size, size, seed).generate(generator));
+    }
+
+    public SolverAdapter(String filename) throws IOException {
+        this(new MazeLoader().mapGrid(filename));
+    }
+
+    private SolverAdapter(MazeGrid grid) {
+        this.grid = grid;
+        this.solver = new MazeSolver(grid);
+        solver.setVerbose(false);
+    }
+
+    @Override
+    public boolean solve(String algorithm) {
+        solver.resetMaze();
+        return solver.solve(algorithm);
+    }
+
+    @Override
+    public boolean solve(String algorithm, int threads) {
+        solver.resetMaze();
+        switch (algorithm) {
+            case "parallelBFS": return solver.parallelBFS(threads);
+            case "parallelDeadEndFill": return solver.parallelDeadEndFill(threads);
+            default:
+                throw new IllegalArgumentException(algorithm + " doesn't take a number of threads");
+        }
+    }
+
+    @Override
+    public long expansions() { return solver.getExpansions(); }
+
+    @Override
+    public int rows() { return grid.getRows(); }
+
+    @Override
+    public int cols() { return grid.getCols(); }
+}
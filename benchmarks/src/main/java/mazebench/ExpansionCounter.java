@@ -0,0 +1,20 @@
+package mazebench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// extra JMH counter: every solve adds the tiles it expanded, JMH reports it next to the score as expansions/s
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ExpansionCounter {
+
+    public long expansions;
+
+    @Setup(Level.Iteration)
+    public void clear() {
+        expansions = 0;
+    }
+}
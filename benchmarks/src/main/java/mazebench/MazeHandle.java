@@ -0,0 +1,43 @@
+package mazebench;
+
+import java.io.IOException;
+
+// the solver classes live in the default package, which JMH benchmarks (and any named package) can't import,
+// so the benchmarks talk to them through this interface. the implementation, SolverAdapter, sits in the
+// default package next to them and is created by name
+public interface MazeHandle {
+
+    // resets the solver and runs the algorithm (one of MazeSolver.ALGORITHMS), true if the end was reached
+    boolean solve(String algorithm);
+
+    // runs parallelBFS or parallelDeadEndFill on a pool of the given number of threads
+    boolean solve(String algorithm, int threads);
+
+    // tiles expanded by the last solve
+    long expansions();
+
+    int rows();
+    int cols();
+
+    // a size x size maze from MazeGenerator (one of MazeGenerator.ALGORITHMS)
+    static MazeHandle generate(String generator, int size, long seed) {
+        return create(new Class<?>[] {String.class, int.class, long.class}, generator, size, seed);
+    }
+
+    // loads a maze file with MazeLoader
+    static MazeHandle load(String filename) throws IOException {
+        return create(new Class<?>[] {String.class}, filename);
+    }
+
+    private static MazeHandle create(Class<?>[] types, Object... args) {
+        try {
+            return (MazeHandle) Class.forName("SolverAdapter").getConstructor(types).newInstance(args);
+        } catch (java.lang.reflect.InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("SolverAdapter is missing from the benchmark classpath", e);
+        }
+    }
+}
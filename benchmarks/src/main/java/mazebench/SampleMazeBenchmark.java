@@ -0,0 +1,42 @@
+package mazebench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// the hand written mazes from Mazes/, run from the project root or from benchmarks/.
+// some of them have teleports, which jump to a random tile, so their numbers are noisier than the generated ones
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SampleMazeBenchmark {
+
+    @Param({"Maze1.txt", "Maze2.txt", "Maze3.txt", "maze.txt", "maze2.txt", "maze5.txt", "maze6.txt", "maze8.txt", "maze_.txt"})
+    public String file;
+
+    @Param({"DFS", "BFS", "parallelBFS", "bidirectionalBFS", "AStar", "AStarBucket", "bidirectionalAStar",
+            "jumpPointSearch", "Dijkstra", "DijkstraBucket", "greedyBestFirst", "deadEndFill",
+            "parallelDeadEndFill"})
+    public String algorithm;
+
+    private MazeHandle maze;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        File path = new File("Mazes", file);
+        if (!path.isFile())
+            path = new File("../Mazes", file);
+        maze = MazeHandle.load(path.getPath());
+    }
+
+    @Benchmark
+    public boolean solve(ExpansionCounter counter) {
+        boolean found = maze.solve(algorithm);
+        counter.expansions += maze.expansions();
+        return found;
+    }
+}
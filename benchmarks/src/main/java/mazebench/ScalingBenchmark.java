@@ -0,0 +1,44 @@
+package mazebench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// how the parallel algorithms scale with the number of threads, on big generated mazes.
+// every solve creates its own pool (like MazeSolver.parallelBFS(threads) does), starting the threads is a
+// fraction of a millisecond next to a solve this size. compare with threads=1 and with the sequential version
+// from SolverBenchmark (-p algorithm=deadEndFill):
+//   java -jar benchmarks/target/benchmarks.jar ScalingBenchmark -p algorithm=parallelDeadEndFill -p size=4096
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ScalingBenchmark {
+
+    @Param({"1024", "4096"})
+    public int size;
+
+    @Param({"backtracker", "rooms"})
+    public String topology;
+
+    @Param({"parallelDeadEndFill", "parallelBFS"})
+    public String algorithm;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private MazeHandle maze;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        maze = MazeHandle.generate(topology, size, 42);
+        if (!maze.solve(algorithm, threads))
+            throw new IllegalStateException(topology + " " + size + " has no path for " + algorithm);
+    }
+
+    @Benchmark
+    public boolean solve() {
+        return maze.solve(algorithm, threads);
+    }
+}
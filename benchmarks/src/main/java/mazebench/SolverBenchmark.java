@@ -0,0 +1,45 @@
+package mazebench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+// every algorithm on MazeGenerator mazes of growing size and different shapes
+// (backtracker = perfect maze, rooms = open rooms joined by corridors, noise = random walls).
+// the score is solves per second, the expansion counter gives tiles/s, run with -prof gc for bytes per solve:
+//   java -jar benchmarks/target/benchmarks.jar SolverBenchmark -prof gc
+//   java -jar benchmarks/target/benchmarks.jar SolverBenchmark -p size=1024 -p algorithm=AStar,jumpPointSearch
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class SolverBenchmark {
+
+    @Param({"64", "256", "1024", "4096"})
+    public int size;
+
+    @Param({"backtracker", "rooms", "noise"})
+    public String topology;
+
+    @Param({"DFS", "BFS", "parallelBFS", "bidirectionalBFS", "AStar", "AStarBucket", "bidirectionalAStar",
+            "jumpPointSearch", "Dijkstra", "DijkstraBucket", "greedyBestFirst", "deadEndFill",
+            "parallelDeadEndFill"})
+    public String algorithm;
+
+    private MazeHandle maze;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        maze = MazeHandle.generate(topology, size, 42);
+        if (!maze.solve(algorithm))
+            throw new IllegalStateException(topology + " " + size + " has no path for " + algorithm);
+    }
+
+    @Benchmark
+    public boolean solve(ExpansionCounter counter) {
+        boolean found = maze.solve(algorithm);
+        counter.expansions += maze.expansions();
+        return found;
+    }
+}
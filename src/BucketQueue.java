@@ -0,0 +1,126 @@
+import java.util.Arrays;
+
+// a bucket queue (Dial's algorithm) for small non negative integer priorities.
+// our edges all cost 1, so distances and A* fScores are small integers and we can keep one bucket per
+// priority value instead of a heap: insert, decrease-key and pop are O(1) plus the cursor moving forward.
+// each bucket is a doubly linked list threaded through int arrays indexed by cell id, so nothing is allocated per push
+public class BucketQueue implements CellQueue {
+
+    // head[p] is the first cell in the bucket for priority p (-1 if empty), next/prev link the cells of a bucket
+    private int[] head;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] priorityOf;
+
+    // a cell is queued when its stamp equals the current epoch, clear() just moves to a new epoch
+    private final int[] queuedStamp;
+    private int epoch;
+
+    // every bucket below the cursor is empty, highest is the largest priority used since the last clear
+    private int cursor;
+    private int highest;
+    private int size;
+
+    public BucketQueue(int capacity) {
+        this.head = new int[64];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.priorityOf = new int[capacity];
+        this.queuedStamp = new int[capacity];
+        this.epoch = 1;
+        Arrays.fill(head, -1);
+        clear();
+    }
+
+    @Override
+    public boolean isEmpty() { return size == 0; }
+    public int size() { return size; }
+
+    // only the buckets we actually used get emptied, not the whole head array
+    @Override
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(head, cursor, highest + 1, -1);
+        }
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(queuedStamp, 0);
+            epoch = 1;
+        }
+        cursor = Integer.MAX_VALUE;
+        highest = -1;
+        size = 0;
+    }
+
+    @Override
+    public boolean contains(int cell) {
+        return queuedStamp[cell] == epoch;
+    }
+
+    @Override
+    public boolean insertOrDecrease(int cell, long priority) {
+        if (priority < 0 || priority >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bucket queue priorities must be small non negative integers: " + priority);
+        }
+        int bucket = (int) priority;
+
+        if (contains(cell)) {
+            if (bucket >= priorityOf[cell])
+                return false;
+            unlink(cell);
+            size--;
+        }
+
+        link(cell, bucket);
+        queuedStamp[cell] = epoch;
+        size++;
+        return true;
+    }
+
+    @Override
+    public int pop() {
+        // move the cursor to the first non empty bucket, priorities only go down when a teleport
+        // lands near the goal and insertOrDecrease already moved the cursor back for that
+        while (head[cursor] == -1) {
+            cursor++;
+        }
+        int cell = head[cursor];
+        unlink(cell);
+        queuedStamp[cell] = 0;
+        size--;
+        return cell;
+    }
+
+    // pushes the cell at the front of its bucket (so ties come out newest first)
+    private void link(int cell, int bucket) {
+        if (bucket >= head.length) {
+            int oldLength = head.length;
+            head = Arrays.copyOf(head, Math.max(bucket + 1, oldLength * 2));
+            Arrays.fill(head, oldLength, head.length, -1);
+        }
+
+        int first = head[bucket];
+        next[cell] = first;
+        prev[cell] = -1;
+        if (first != -1)
+            prev[first] = cell;
+        head[bucket] = cell;
+        priorityOf[cell] = bucket;
+
+        if (bucket < cursor)
+            cursor = bucket;
+        if (bucket > highest)
+            highest = bucket;
+    }
+
+    private void unlink(int cell) {
+        int before = prev[cell];
+        int after = next[cell];
+        if (before == -1)
+            head[priorityOf[cell]] = after;
+        else
+            next[before] = after;
+        if (after != -1)
+            prev[after] = before;
+    }
+}
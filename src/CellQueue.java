@@ -0,0 +1,18 @@
+// the priority queue operations A*, Dijkstra and Greedy need, so the same search code can run
+// on the binary heap (any priorities) or on the bucket queue (small integer priorities)
+public interface CellQueue {
+
+    boolean isEmpty();
+
+    // empties the queue so it can be reused for the next solve
+    void clear();
+
+    // true if the cell is waiting in the queue right now
+    boolean contains(int cell);
+
+    // adds the cell, or lowers its priority if it's already queued with a bigger one, returns true if the queue changed
+    boolean insertOrDecrease(int cell, long priority);
+
+    // removes and returns the cell with the smallest priority
+    int pop();
+}
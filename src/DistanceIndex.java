@@ -0,0 +1,329 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// precomputed distances for answering many start/end queries on the same maze (see MazeSolver.solve(r1, c1, r2, c2)).
+// there are two kinds:
+//   landmarks: BFS distances from a few landmark tiles spread around the maze. by the triangle inequality
+//              |d(L, target) - d(L, tile)| is never more than the real distance from tile to target, so the best of
+//              these (ALT) is a much tighter A* heuristic than the Manhattan distance, especially in winding mazes
+//   exact:     the distance between every pair of open tiles, a query just reads the path off the table.
+//              it needs (open tiles)^2 entries so it's only for small mazes (up to EXACT_LIMIT open tiles)
+// distances are plain step counts, the special tiles are treated as normal floor (a teleport has no fixed distance).
+// an index can be saved and loaded again for the same maze, it remembers the maze's content hash to check that
+// it's loaded for the maze it was built for. it also remembers MazeGrid.getModCount(), after a wall edit the
+// distances are wrong and the solver refuses the index (isCurrent)
+//
+//   java DistanceIndex <maze file> <index file> [landmarks]
+public class DistanceIndex {
+
+    public static final int DEFAULT_LANDMARKS = 8;
+    public static final int EXACT_LIMIT = 4096;
+
+    // stands for "can't be reached" in the tables
+    public static final int UNREACHABLE = -1;
+    private static final char EXACT_UNREACHABLE = Character.MAX_VALUE;
+
+    private static final int MAGIC = 0x4D5A4958;     // "MZIX"
+    private static final int VERSION = 1;
+
+    private final MazeGrid maze;
+
+    // MazeGrid.getModCount() when the index was built or loaded
+    private final int modCount;
+
+    // landmark mode: landmark cells and distance[i][cell] from landmark i
+    private final int[] landmarks;
+    private final int[][] landmarkDistance;
+
+    // exact mode: openId[cell] is the dense id of an open tile (-1 for walls), table[a * open + b] their distance
+    private final int[] openId;
+    private final int openCount;
+    private final char[] table;
+
+    private DistanceIndex(MazeGrid maze, int[] landmarks, int[][] landmarkDistance, int[] openId, int openCount, char[] table) {
+        this.maze = maze;
+        this.modCount = maze.getModCount();
+        this.landmarks = landmarks;
+        this.landmarkDistance = landmarkDistance;
+        this.openId = openId;
+        this.openCount = openCount;
+        this.table = table;
+    }
+
+    // exact table for small mazes, landmarks for everything else
+    public static DistanceIndex build(MazeGrid maze) {
+        return countOpen(maze) <= EXACT_LIMIT ? exact(maze) : landmarks(maze, DEFAULT_LANDMARKS);
+    }
+
+    // picks the landmarks by farthest point sampling: each new one is the tile farthest from all the ones we have,
+    // landmarks at the far ends of the maze give the best bounds
+    public static DistanceIndex landmarks(MazeGrid maze, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Need at least one landmark.");
+        }
+        int seed = maze.getStart() != -1 ? maze.getStart() : firstOpen(maze);
+        if (seed == -1) {
+            throw new IllegalArgumentException("Maze has no open tiles.");
+        }
+
+        int[] landmarks = new int[count];
+        int[][] distances = new int[count][];
+        int[] queue = new int[maze.size()];
+
+        // the first landmark is the tile farthest from the start, and the closest-landmark distance of every tile
+        // is tracked in nearest so the next one can be picked
+        int[] fromSeed = new int[maze.size()];
+        bfs(maze, seed, fromSeed, queue);
+        int[] nearest = new int[maze.size()];
+        Arrays.fill(nearest, Integer.MAX_VALUE);
+        int next = farthest(fromSeed, nearest);
+        fromSeed = null;
+
+        int found = 0;
+        while (found < count && next != -1) {
+            landmarks[found] = next;
+            distances[found] = new int[maze.size()];
+            bfs(maze, next, distances[found], queue);
+            for (int cell = 0; cell < nearest.length; cell++) {
+                int d = distances[found][cell];
+                if (d != UNREACHABLE && d < nearest[cell])
+                    nearest[cell] = d;
+            }
+            found++;
+            next = farthest(distances[found - 1], nearest);
+        }
+
+        return new DistanceIndex(maze, Arrays.copyOf(landmarks, found), Arrays.copyOf(distances, found), null, 0, null);
+    }
+
+    // a BFS from every open tile, (open tiles)^2 chars
+    public static DistanceIndex exact(MazeGrid maze) {
+        int open = countOpen(maze);
+        if (open > EXACT_LIMIT) {
+            throw new IllegalArgumentException("Maze has " + open + " open tiles, the exact index supports up to " + EXACT_LIMIT + ".");
+        }
+
+        int[] openId = new int[maze.size()];
+        int[] openCells = new int[open];
+        int next = 0;
+        for (int cell = 0; cell < maze.size(); cell++) {
+            openId[cell] = maze.isWall(cell) ? -1 : next;
+            if (!maze.isWall(cell))
+                openCells[next++] = cell;
+        }
+
+        char[] table = new char[open * open];
+        int[] distance = new int[maze.size()];
+        int[] queue = new int[maze.size()];
+        for (int a = 0; a < open; a++) {
+            bfs(maze, openCells[a], distance, queue);
+            for (int b = 0; b < open; b++) {
+                int d = distance[openCells[b]];
+                table[a * open + b] = d == UNREACHABLE ? EXACT_UNREACHABLE : (char) d;
+            }
+        }
+        return new DistanceIndex(maze, null, null, openId, open, table);
+    }
+
+    public boolean isExact() {
+        return table != null;
+    }
+
+    public int getLandmarkCount() {
+        return landmarks == null ? 0 : landmarks.length;
+    }
+
+    public MazeGrid getMaze() {
+        return maze;
+    }
+
+    // false once the maze was edited with setWall after the index was built, its distances can't be trusted then
+    public boolean isCurrent() {
+        return modCount == maze.getModCount();
+    }
+
+    // exact mode only: number of steps between two open tiles, UNREACHABLE if there is no path
+    public int distance(int from, int to) {
+        if (!isExact()) {
+            throw new IllegalStateException("Only the exact index knows real distances.");
+        }
+        char d = table[openId[from] * openCount + openId[to]];
+        return d == EXACT_UNREACHABLE ? UNREACHABLE : d;
+    }
+
+    // a lower bound on the distance from cell to target (never more than the real one, so A* stays optimal),
+    // UNREACHABLE if the index already knows there is no path
+    public int lowerBound(int cell, int target) {
+        if (isExact())
+            return distance(cell, target);
+
+        int best = Math.abs(maze.rowOf(cell) - maze.rowOf(target)) + Math.abs(maze.colOf(cell) - maze.colOf(target));
+        for (int[] fromLandmark : landmarkDistance) {
+            int a = fromLandmark[cell];
+            int b = fromLandmark[target];
+            // one side reachable from the landmark and the other not: they are in different parts of the maze
+            if ((a == UNREACHABLE) != (b == UNREACHABLE))
+                return UNREACHABLE;
+            if (a != UNREACHABLE && Math.abs(a - b) > best)
+                best = Math.abs(a - b);
+        }
+        return best;
+    }
+
+    public void save(String filename) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(maze.getRows());
+            out.writeInt(maze.getCols());
+            out.writeLong(maze.contentHash());
+            out.writeBoolean(isExact());
+            if (isExact()) {
+                out.writeInt(openCount);
+                byte[] bytes = new byte[table.length * 2];
+                ByteBuffer.wrap(bytes).asCharBuffer().put(table);
+                out.write(bytes);
+            } else {
+                out.writeInt(landmarks.length);
+                writeInts(out, landmarks);
+                for (int[] distances : landmarkDistance) {
+                    writeInts(out, distances);
+                }
+            }
+        }
+    }
+
+    // loads an index saved for this exact maze (same size and same tiles)
+    public static DistanceIndex load(String filename, MazeGrid maze) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename), 1 << 16))) {
+            if (in.readInt() != MAGIC)
+                throw new IllegalArgumentException("Not a distance index file: " + filename);
+            if (in.readInt() != VERSION)
+                throw new IllegalArgumentException("Unsupported distance index version: " + filename);
+            if (in.readInt() != maze.getRows() || in.readInt() != maze.getCols() || in.readLong() != maze.contentHash())
+                throw new IllegalArgumentException("The index in " + filename + " was built for a different maze.");
+
+            if (in.readBoolean()) {
+                int open = in.readInt();
+                if (open != countOpen(maze))
+                    throw new IllegalArgumentException("Corrupt distance index: " + filename);
+                byte[] bytes = new byte[open * open * 2];
+                in.readFully(bytes);
+                char[] table = new char[open * open];
+                ByteBuffer.wrap(bytes).asCharBuffer().get(table);
+
+                int[] openId = new int[maze.size()];
+                int next = 0;
+                for (int cell = 0; cell < maze.size(); cell++) {
+                    openId[cell] = maze.isWall(cell) ? -1 : next++;
+                }
+                return new DistanceIndex(maze, null, null, openId, open, table);
+            }
+
+            int count = in.readInt();
+            if (count < 1 || count > 1024)
+                throw new IllegalArgumentException("Corrupt distance index: " + filename);
+            int[] landmarks = readInts(in, count);
+            int[][] distances = new int[count][];
+            for (int i = 0; i < count; i++) {
+                distances[i] = readInts(in, maze.size());
+            }
+            return new DistanceIndex(maze, landmarks, distances, null, 0, null);
+        }
+    }
+
+    // plain BFS distances from source to every tile, UNREACHABLE for walls and tiles it can't reach
+    private static void bfs(MazeGrid maze, int source, int[] distance, int[] queue) {
+        Arrays.fill(distance, UNREACHABLE);
+        int head = 0;
+        int tail = 0;
+        distance[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int current = queue[head++];
+            int open = maze.openDirections(current);
+            for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                if ((open & (1 << d)) == 0) continue;
+                int neighbor = maze.neighbor(current, d);
+                if (distance[neighbor] == UNREACHABLE) {
+                    distance[neighbor] = distance[current] + 1;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+    }
+
+    // the reachable tile with the largest distance to its closest landmark (nearest is still MAX_VALUE everywhere
+    // before the first one), -1 once every reachable tile is a landmark
+    private static int farthest(int[] reachable, int[] nearest) {
+        int best = -1;
+        int bestDistance = 0;
+        for (int cell = 0; cell < reachable.length; cell++) {
+            if (reachable[cell] == UNREACHABLE)
+                continue;
+            int d = Math.min(nearest[cell], reachable[cell]);
+            if (d > bestDistance) {
+                best = cell;
+                bestDistance = d;
+            }
+        }
+        return best;
+    }
+
+    private static int countOpen(MazeGrid maze) {
+        int open = 0;
+        for (int cell = 0; cell < maze.size(); cell++) {
+            if (!maze.isWall(cell))
+                open++;
+        }
+        return open;
+    }
+
+    private static int firstOpen(MazeGrid maze) {
+        for (int cell = 0; cell < maze.size(); cell++) {
+            if (!maze.isWall(cell))
+                return cell;
+        }
+        return -1;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        for (int i = 0; i < values.length; ) {
+            buffer.clear();
+            int count = Math.min(values.length - i, buffer.capacity() / 4);
+            buffer.asIntBuffer().put(values, i, count);
+            out.write(buffer.array(), 0, count * 4);
+            i += count;
+        }
+    }
+
+    private static int[] readInts(DataInputStream in, int length) throws IOException {
+        int[] values = new int[length];
+        byte[] bytes = new byte[1 << 16];
+        for (int i = 0; i < length; ) {
+            int count = Math.min(length - i, bytes.length / 4);
+            in.readFully(bytes, 0, count * 4);
+            ByteBuffer.wrap(bytes, 0, count * 4).asIntBuffer().get(values, i, count);
+            i += count;
+        }
+        return values;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("usage: java DistanceIndex <maze file> <index file> [landmarks]");
+            System.exit(2);
+        }
+        try {
+            MazeGrid maze = MazeFile.load(args[0]);
+            DistanceIndex index = args.length > 2 ? landmarks(maze, Integer.parseInt(args[2])) : build(maze);
+            index.save(args[1]);
+            System.out.println(index.isExact() ? "Saved exact index" : "Saved index with " + index.getLandmarkCount() + " landmarks");
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println(args[0] + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
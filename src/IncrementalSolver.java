@@ -0,0 +1,174 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// shortest path that gets repaired instead of recomputed when walls are added or removed (Lifelong Planning A*).
+// every tile keeps g, its distance from the start as of the last search, and rhs, the distance its neighbors
+// say it should have now (min of their g + 1). a tile where the two disagree is "inconsistent" and goes in a queue
+// ordered like A* (same Manhattan heuristic as MazeSolver.AStar). a wall change only makes the changed tile and its
+// neighbors inconsistent, so the repair only goes through the area whose distances actually changed.
+//
+//   IncrementalSolver solver = new IncrementalSolver(maze);
+//   solver.solve();                  // first search, about the same work as A*
+//   solver.setWall(5, 7, true);      // edit the maze
+//   solver.solve();                  // repairs the path
+//   solver.getPath();
+//
+// teleports jump to a random tile, so there is no fixed distance to repair, mazes with teleports are rejected.
+// counter tiles don't change the path, they are treated as normal floor here
+public class IncrementalSolver {
+
+    // "no path", halved so INFINITY + 1 doesn't overflow
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+
+    private final MazeGrid maze;
+    private final int start;
+    private final int end;
+    private final int[] g;
+    private final int[] rhs;
+    private final IndexedMinHeap queue;
+
+    // tiles expanded by the last solve() call
+    private long expansions;
+
+    public IncrementalSolver(MazeGrid maze) {
+        if (maze.getStart() == -1 || maze.getEnd() == -1) {
+            throw new IllegalStateException("Maze must have start and end tiles.");
+        }
+        if (maze.getTeleportCount() > 0) {
+            throw new IllegalArgumentException("Incremental solving doesn't support teleport tiles.");
+        }
+
+        this.maze = maze;
+        this.start = maze.getStart();
+        this.end = maze.getEnd();
+        this.g = new int[maze.size()];
+        this.rhs = new int[maze.size()];
+        this.queue = new IndexedMinHeap(maze.size());
+
+        java.util.Arrays.fill(g, INFINITY);
+        java.util.Arrays.fill(rhs, INFINITY);
+        rhs[start] = 0;
+        queue.insertOrDecrease(start, key(start));
+    }
+
+    // adds or removes a wall at (row, col), the path is repaired by the next solve()
+    public void setWall(int row, int col, boolean wall) {
+        if (!maze.inBounds(row, col)) {
+            throw new IllegalArgumentException("(" + row + ", " + col + ") is outside of the maze.");
+        }
+        int cell = maze.index(row, col);
+        if (maze.isWall(cell) == wall)
+            return;
+        maze.setWall(cell, wall);
+
+        // only the tile itself and the edges to its neighbors changed
+        updateVertex(cell);
+        for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+            int newRow = row + MazeGrid.DIRECTION_ROWS[d];
+            int newCol = col + MazeGrid.DIRECTION_COLS[d];
+            if (maze.inBounds(newRow, newCol))
+                updateVertex(maze.neighbor(cell, d));
+        }
+    }
+
+    // processes the inconsistent tiles until the end's distance is settled, returns true if the end can be reached
+    public boolean solve() {
+        expansions = 0;
+        while (!queue.isEmpty() && (queue.peekKey() < key(end) || rhs[end] != g[end])) {
+            int current = queue.pop();
+            expansions++;
+
+            if (g[current] > rhs[current]) {
+                // got shorter: settle it and let the neighbors know
+                g[current] = rhs[current];
+                updateNeighbors(current);
+            } else {
+                // got longer (a wall cut its old path): forget it, it gets requeued with its new distance
+                g[current] = INFINITY;
+                updateVertex(current);
+                updateNeighbors(current);
+            }
+        }
+        return g[end] < INFINITY;
+    }
+
+    // the path from start to end after solve(), empty if there is none.
+    // we walk back from the end, always to a neighbor that is one step closer to the start
+    public List<Tile> getPath() {
+        List<Tile> path = new ArrayList<>();
+        if (g[end] >= INFINITY)
+            return path;
+
+        int current = end;
+        path.add(maze.tileAt(current));
+        while (current != start) {
+            int open = maze.openDirections(current);
+            int previous = -1;
+            for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                if ((open & (1 << d)) == 0) continue;
+                int neighbor = maze.neighbor(current, d);
+                if (g[neighbor] == g[current] - 1) {
+                    previous = neighbor;
+                    break;
+                }
+            }
+            current = previous;
+            path.add(maze.tileAt(current));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    // number of steps from start to end, -1 if there is no path
+    public int getDistance() {
+        return g[end] < INFINITY ? g[end] : -1;
+    }
+
+    public long getExpansions() {
+        return expansions;
+    }
+
+    public MazeGrid getMaze() {
+        return maze;
+    }
+
+    // recomputes rhs from the neighbors and (re)queues the tile if it's now inconsistent
+    private void updateVertex(int cell) {
+        if (cell != start) {
+            int best = INFINITY;
+            if (!maze.isWall(cell)) {
+                int open = maze.openDirections(cell);
+                for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                    if ((open & (1 << d)) == 0) continue;
+                    best = Math.min(best, g[maze.neighbor(cell, d)] + 1);
+                }
+            }
+            rhs[cell] = Math.min(best, INFINITY);
+        }
+
+        if (g[cell] != rhs[cell])
+            queue.update(cell, key(cell));
+        else
+            queue.remove(cell);
+    }
+
+    private void updateNeighbors(int cell) {
+        int open = maze.openDirections(cell);
+        for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+            if ((open & (1 << d)) == 0) continue;
+            updateVertex(maze.neighbor(cell, d));
+        }
+    }
+
+    // LPA* orders by [min(g, rhs) + h, min(g, rhs)], both fit in an int so we pack them in one long
+    private long key(int cell) {
+        long distance = Math.min(g[cell], rhs[cell]);
+        return ((distance + heuristic(cell)) << 32) | distance;
+    }
+
+    // Manhattan distance to the end, same as MazeSolver's A* heuristic
+    private int heuristic(int cell) {
+        return Math.abs(maze.rowOf(cell) - maze.rowOf(end)) + Math.abs(maze.colOf(cell) - maze.colOf(end));
+    }
+}
@@ -0,0 +1,144 @@
+// a binary min heap of cell ids with a long priority each, shared by A*, Dijkstra and Greedy Best-First.
+// every cell remembers its slot in the heap, so when we find a cheaper path to a cell that is already queued
+// we just lower its key in place (decrease-key) instead of pushing a duplicate node object
+public class IndexedMinHeap implements CellQueue {
+
+    // heap[i] is the cell id stored at slot i, position[cell] is the slot of that cell, key[cell] is its priority
+    private final int[] heap;
+    private final int[] position;
+    private final long[] key;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.key = new long[capacity];
+        this.size = 0;
+    }
+
+    @Override
+    public boolean isEmpty() { return size == 0; }
+    public int size() { return size; }
+
+    // empties the heap in O(1), stale positions are ignored by contains()
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    // a cell is queued only if its recorded slot is in use and actually holds that cell
+    @Override
+    public boolean contains(int cell) {
+        int slot = position[cell];
+        return slot < size && heap[slot] == cell;
+    }
+
+    // priority of a queued cell
+    public long keyOf(int cell) {
+        return key[cell];
+    }
+
+    // adds the cell, or lowers its priority if it's already queued with a bigger one
+    // returns true if the heap changed
+    @Override
+    public boolean insertOrDecrease(int cell, long priority) {
+        if (contains(cell)) {
+            if (priority >= key[cell])
+                return false;
+            key[cell] = priority;
+            siftUp(position[cell]);
+            return true;
+        }
+
+        key[cell] = priority;
+        heap[size] = cell;
+        position[cell] = size;
+        siftUp(size++);
+        return true;
+    }
+
+    // sets the priority of the cell whether that's lower or higher than before, adds the cell if it isn't queued
+    public void update(int cell, long priority) {
+        if (!contains(cell)) {
+            insertOrDecrease(cell, priority);
+            return;
+        }
+        long old = key[cell];
+        key[cell] = priority;
+        if (priority < old)
+            siftUp(position[cell]);
+        else
+            siftDown(position[cell]);
+    }
+
+    // takes the cell out of the heap if it's queued
+    public void remove(int cell) {
+        if (!contains(cell))
+            return;
+        int slot = position[cell];
+        size--;
+        if (slot < size) {
+            // the last cell fills the hole, it can belong above or below it
+            int last = heap[size];
+            move(last, slot);
+            siftDown(slot);
+            siftUp(position[last]);
+        }
+        position[cell] = size;
+    }
+
+    // smallest priority currently queued
+    public long peekKey() {
+        return key[heap[0]];
+    }
+
+    // removes and returns the cell with the smallest priority
+    @Override
+    public int pop() {
+        int top = heap[0];
+        size--;
+        if (size > 0) {
+            move(heap[size], 0);
+            siftDown(0);
+        }
+        // park the removed cell outside of the used slots so contains() is false for it
+        position[top] = size;
+        return top;
+    }
+
+    private void siftUp(int slot) {
+        int cell = heap[slot];
+        long priority = key[cell];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) >>> 1;
+            int parentCell = heap[parentSlot];
+            if (key[parentCell] <= priority)
+                break;
+            move(parentCell, slot);
+            slot = parentSlot;
+        }
+        move(cell, slot);
+    }
+
+    private void siftDown(int slot) {
+        int cell = heap[slot];
+        long priority = key[cell];
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < size && key[heap[right]] < key[heap[child]])
+                child = right;
+            if (key[heap[child]] >= priority)
+                break;
+            move(heap[child], slot);
+            slot = child;
+        }
+        move(cell, slot);
+    }
+
+    private void move(int cell, int slot) {
+        heap[slot] = cell;
+        position[cell] = slot;
+    }
+}
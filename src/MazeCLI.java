@@ -0,0 +1,205 @@
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+// headless runner for batch jobs and CI: solves maze files without opening the Swing window
+// and prints one line of metrics per (maze, algorithm) as CSV or JSON lines.
+//
+//   java MazeCLI [--algorithms BFS,AStar,...] [--format csv|json] [--threads n] [--trace dir] <maze file or directory>...
+//
+// directories are expanded to the .txt and .maze files inside them (sorted by name), the default is every algorithm in CSV.
+// with --trace every solve is also recorded into <dir>/<maze file>.<algorithm>.trace (see SolveTrace), the UI can
+// replay those without solving again. two mazes with the same file name (from different directories) would get the
+// same trace, the second one is still solved but its trace isn't written and it counts as a failure.
+// allocated_bytes is what the solving thread allocated during the solve, -1 if the JVM can't measure it. the pool
+// threads of parallelBFS and parallelDeadEndFill aren't counted, for those it's only the part done on this thread
+public class MazeCLI {
+
+    private static final String USAGE =
+        "usage: java MazeCLI [--algorithms a,b,...] [--format csv|json] [--threads n] [--trace dir] <maze file or directory>...\n"
+        + "algorithms: " + String.join(",", MazeSolver.ALGORITHMS);
+
+    public static void main(String[] args) {
+        List<String> algorithms = new ArrayList<>(Arrays.asList(MazeSolver.ALGORITHMS));
+        String format = "csv";
+        int threads = 0;     // 0 = the parallel algorithms use the common pool
+        File traceDir = null;
+        List<File> files = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--algorithms":
+                        algorithms = Arrays.asList(value(args, ++i).split(","));
+                        for (String algorithm : algorithms) {
+                            if (!Arrays.asList(MazeSolver.ALGORITHMS).contains(algorithm))
+                                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+                        }
+                        break;
+                    case "--format":
+                        format = value(args, ++i);
+                        if (!format.equals("csv") && !format.equals("json"))
+                            throw new IllegalArgumentException("Unknown format: " + format);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value(args, ++i));
+                        if (threads < 1)
+                            throw new IllegalArgumentException("--threads must be at least 1");
+                        break;
+                    case "--trace":
+                        traceDir = new File(value(args, ++i));
+                        break;
+                    case "-h":
+                    case "--help":
+                        System.out.println(USAGE);
+                        return;
+                    default:
+                        addMazeFiles(new File(args[i]), files);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        if (files.isEmpty()) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        if (traceDir != null && !traceDir.isDirectory() && !traceDir.mkdirs()) {
+            System.err.println("Can't create trace directory " + traceDir);
+            System.exit(2);
+        }
+
+        boolean json = format.equals("json");
+        if (!json)
+            System.out.println("file,algorithm,rows,cols,found,path_length,expansions,counter,time_ms,allocated_bytes");
+
+        // a maze that fails to load or solve is reported and skipped, the exit code tells the caller something went wrong
+        boolean failed = false;
+        Map<File, File> traces = new HashMap<>();     // trace file -> the maze it was written for
+        for (File file : files) {
+            MazeGrid grid;
+            try {
+                grid = MazeFile.load(file.getPath());
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println(file.getPath() + ": " + e.getMessage());
+                failed = true;
+                continue;
+            }
+
+            for (String algorithm : algorithms) {
+                File trace = null;
+                if (traceDir != null) {
+                    trace = new File(traceDir, file.getName() + "." + algorithm + SolveTrace.EXTENSION);
+                    File maze = file.getAbsoluteFile().toPath().normalize().toFile();
+                    if (!traces.computeIfAbsent(trace, t -> maze).equals(maze)) {
+                        System.err.println(file.getPath() + " (" + algorithm + "): " + trace
+                            + " was already written for another maze, not overwriting it");
+                        failed = true;
+                        trace = null;
+                    }
+                }
+                try {
+                    System.out.println(run(file, grid, algorithm, threads, json, trace));
+                } catch (IOException | RuntimeException e) {
+                    System.err.println(file.getPath() + " (" + algorithm + "): " + e);
+                    failed = true;
+                }
+            }
+        }
+
+        if (failed)
+            System.exit(1);
+    }
+
+    // solves the maze once with a fresh solver (no UI, so nothing sleeps) and formats the metrics,
+    // recording the solve into the trace file when it isn't null (the time then includes the recording)
+    private static String run(File file, MazeGrid grid, String algorithm, int threads, boolean json, File trace) throws IOException {
+        MazeSolver solver = new MazeSolver(grid);
+        solver.setVerbose(false);
+        solver.resetMaze();
+        TraceRecorder recorder = null;
+        if (trace != null) {
+            recorder = new TraceRecorder(grid, algorithm);
+            solver.setListener(recorder);
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long startTime = System.nanoTime();
+        boolean found;
+        if (threads > 0 && algorithm.equals("parallelBFS"))
+            found = solver.parallelBFS(threads);
+        else if (threads > 0 && algorithm.equals("parallelDeadEndFill"))
+            found = solver.parallelDeadEndFill(threads);
+        else
+            found = solver.solve(algorithm);
+        long elapsed = System.nanoTime() - startTime;
+        long allocatedAfter = allocatedBytes();
+        long allocated = allocatedBefore == -1 || allocatedAfter == -1 ? -1 : allocatedAfter - allocatedBefore;
+
+        // the path is built after the clock stopped, it's not part of the search
+        List<Tile> path = found ? solver.reconstructPath(solver.getEnd()) : Collections.emptyList();
+        int pathLength = path.size();
+        if (recorder != null) {
+            for (Tile tile : path) {
+                recorder.path(grid.index(tile.getRow(), tile.getCol()));
+            }
+            recorder.finish().save(trace.getPath());
+        }
+        double millis = elapsed / 1e6;
+
+        if (json) {
+            return String.format(Locale.ROOT,
+                "{\"file\":\"%s\",\"algorithm\":\"%s\",\"rows\":%d,\"cols\":%d,\"found\":%b,\"path_length\":%d,"
+                + "\"expansions\":%d,\"counter\":%d,\"time_ms\":%.3f,\"allocated_bytes\":%d}",
+                escapeJson(file.getPath()), algorithm, grid.getRows(), grid.getCols(), found, pathLength,
+                solver.getExpansions(), solver.getCounter().value, millis, allocated);
+        }
+        return String.format(Locale.ROOT, "%s,%s,%d,%d,%b,%d,%d,%d,%.3f,%d",
+            escapeCsv(file.getPath()), algorithm, grid.getRows(), grid.getCols(), found, pathLength,
+            solver.getExpansions(), solver.getCounter().value, millis, allocated);
+    }
+
+    // bytes allocated by this thread so far, -1 if the JVM can't tell us (only HotSpot style JVMs support it)
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled())
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static void addMazeFiles(File path, List<File> files) {
+        if (path.isDirectory()) {
+            File[] children = path.listFiles((dir, name) -> name.endsWith(".txt") || name.endsWith(MazeFile.EXTENSION));
+            if (children != null) {
+                Arrays.sort(children);
+                files.addAll(Arrays.asList(children));
+            }
+        } else if (path.isFile()) {
+            files.add(path);
+        } else {
+            throw new IllegalArgumentException("No such file or directory: " + path);
+        }
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length)
+            throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        return args[i];
+    }
+
+    private static String escapeCsv(String s) {
+        if (s.contains(",") || s.contains("\""))
+            return "\"" + s.replace("\"", "\"\"") + "\"";
+        return s;
+    }
+
+    private static String escapeJson(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,231 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.function.IntUnaryOperator;
+
+// draws the whole maze in one component instead of a JPanel per tile: every tile is one pixel of a BufferedImage
+// and the image is scaled up by the zoom when painted, so a maze with millions of tiles is one image.
+// the colors come from the UI (colorOf gives the RGB of a tile), refreshVisible() asks it only for the tiles on
+// screen and only the area around the tiles whose color changed is repainted (the dirty rectangle).
+// mouse wheel zooms around the cursor, dragging pans, double click fits the whole maze in the window
+public class MazeCanvas extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+
+    // tiles bigger than this get a thin grid line around them, like the old tile borders
+    private static final double GRID_LINE_SIZE = 8;
+    private static final double MAX_CELL_SIZE = 64;
+    private static final double ZOOM_STEP = 1.25;
+    private static final Color GRID_COLOR = Color.GRAY;
+    private static final Color BACKGROUND = Color.DARK_GRAY;
+
+    private final MazeGrid maze;
+    private final IntUnaryOperator colorOf;
+    private final BufferedImage image;
+    private final int[] pixels;
+
+    // size of a tile on screen in pixels (below 1 when zoomed far out) and where the maze's top left corner is
+    private double cellSize = 1;
+    private double offsetX;
+    private double offsetY;
+
+    // false until the maze was fitted to the component's real size (it has none before it's laid out)
+    private boolean placed;
+
+    // tiles whose color changed since the last repaint, in rows and columns (empty when maxRow < minRow)
+    private int minRow = Integer.MAX_VALUE;
+    private int maxRow = -1;
+    private int minCol = Integer.MAX_VALUE;
+    private int maxCol = -1;
+
+    public MazeCanvas(MazeGrid maze, IntUnaryOperator colorOf) {
+        this.maze = maze;
+        this.colorOf = colorOf;
+        this.image = new BufferedImage(maze.getCols(), maze.getRows(), BufferedImage.TYPE_INT_RGB);
+        this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        setOpaque(true);
+
+        // about 25 pixels per tile like before, as long as that fits on the screen
+        int width = (int) Math.min(1000, maze.getCols() * 25L);
+        int height = (int) Math.min(700, maze.getRows() * 25L);
+        setPreferredSize(new Dimension(Math.max(width, 200), Math.max(height, 200)));
+
+        MouseAdapter mouse = new MouseAdapter() {
+            private Point dragFrom;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragFrom = e.getPoint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (dragFrom == null) return;
+                offsetX += e.getX() - dragFrom.x;
+                offsetY += e.getY() - dragFrom.y;
+                dragFrom = e.getPoint();
+                viewChanged();
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2)
+                    fit();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                zoom(Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation()), e.getX(), e.getY());
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                if (!placed)
+                    fit();
+                else
+                    refreshVisible();
+            }
+        });
+    }
+
+    // zooms so the whole maze fits and centers it
+    public void fit() {
+        int width = getWidth() > 0 ? getWidth() : getPreferredSize().width;
+        int height = getHeight() > 0 ? getHeight() : getPreferredSize().height;
+        cellSize = Math.min(MAX_CELL_SIZE, Math.min((double) width / maze.getCols(), (double) height / maze.getRows()));
+        offsetX = (width - maze.getCols() * cellSize) / 2;
+        offsetY = (height - maze.getRows() * cellSize) / 2;
+        placed = getWidth() > 0;
+        viewChanged();
+    }
+
+    // multiplies the tile size by factor, keeping the tile under (x, y) in place
+    public void zoom(double factor, int x, int y) {
+        double min = Math.min(1, fitSize()) / 2;
+        double newSize = Math.max(min, Math.min(MAX_CELL_SIZE, cellSize * factor));
+        offsetX = x - (x - offsetX) * newSize / cellSize;
+        offsetY = y - (y - offsetY) * newSize / cellSize;
+        cellSize = newSize;
+        viewChanged();
+    }
+
+    // sets the color of one tile, the tile is repainted by the next repaintDirty()
+    public void setCellColor(int cell, int rgb) {
+        if (pixels[cell] == rgb)
+            return;
+        pixels[cell] = rgb;
+        int row = maze.rowOf(cell);
+        int col = maze.colOf(cell);
+        minRow = Math.min(minRow, row);
+        maxRow = Math.max(maxRow, row);
+        minCol = Math.min(minCol, col);
+        maxCol = Math.max(maxCol, col);
+    }
+
+    // asks the UI for the colors of the tiles on screen and repaints the ones that changed.
+    // the tiles off screen keep their old color until they are scrolled into view
+    public void refreshVisible() {
+        refresh(firstVisible(offsetY, maze.getRows()), lastVisible(offsetY, getHeight(), maze.getRows()),
+                firstVisible(offsetX, maze.getCols()), lastVisible(offsetX, getWidth(), maze.getCols()));
+    }
+
+    // every tile, only for a new maze (or a small one)
+    public void refreshAll() {
+        refresh(0, maze.getRows() - 1, 0, maze.getCols() - 1);
+    }
+
+    private void refresh(int fromRow, int toRow, int fromCol, int toCol) {
+        for (int row = fromRow; row <= toRow; row++) {
+            int cell = maze.index(row, fromCol);
+            for (int col = fromCol; col <= toCol; col++, cell++) {
+                setCellColor(cell, colorOf.applyAsInt(cell));
+            }
+        }
+        repaintDirty();
+    }
+
+    // repaints the screen area of the tiles that changed color since the last call
+    public void repaintDirty() {
+        if (maxRow < minRow)
+            return;
+        int x = (int) Math.floor(offsetX + minCol * cellSize);
+        int y = (int) Math.floor(offsetY + minRow * cellSize);
+        int width = (int) Math.ceil((maxCol - minCol + 1) * cellSize) + 2;
+        int height = (int) Math.ceil((maxRow - minRow + 1) * cellSize) + 2;
+        minRow = minCol = Integer.MAX_VALUE;
+        maxRow = maxCol = -1;
+        repaint(x, y, width, height);
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics;
+        Rectangle clip = g.getClipBounds();
+        if (clip == null)
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g.setColor(BACKGROUND);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        // only the part of the image under the clip is scaled and drawn
+        int fromRow = firstVisible(offsetY - clip.y, maze.getRows());
+        int toRow = lastVisible(offsetY - clip.y, clip.height, maze.getRows());
+        int fromCol = firstVisible(offsetX - clip.x, maze.getCols());
+        int toCol = lastVisible(offsetX - clip.x, clip.width, maze.getCols());
+        if (toRow < fromRow || toCol < fromCol)
+            return;
+
+        int x1 = screen(offsetX, fromCol);
+        int y1 = screen(offsetY, fromRow);
+        int x2 = screen(offsetX, toCol + 1);
+        int y2 = screen(offsetY, toRow + 1);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g.drawImage(image, x1, y1, x2, y2, fromCol, fromRow, toCol + 1, toRow + 1, null);
+
+        if (cellSize >= GRID_LINE_SIZE) {
+            g.setColor(GRID_COLOR);
+            for (int row = fromRow; row <= toRow + 1; row++) {
+                int y = screen(offsetY, row);
+                g.drawLine(x1, y, x2, y);
+            }
+            for (int col = fromCol; col <= toCol + 1; col++) {
+                int x = screen(offsetX, col);
+                g.drawLine(x, y1, x, y2);
+            }
+        }
+    }
+
+    private void viewChanged() {
+        refreshVisible();
+        repaint();
+    }
+
+    private double fitSize() {
+        int width = Math.max(1, getWidth());
+        int height = Math.max(1, getHeight());
+        return Math.min((double) width / maze.getCols(), (double) height / maze.getRows());
+    }
+
+    private int screen(double offset, int index) {
+        return (int) Math.floor(offset + index * cellSize);
+    }
+
+    // first and last row (or column) that is at least partly inside [0, length) on screen
+    private int firstVisible(double offset, int count) {
+        return (int) Math.max(0, Math.min(count, Math.floor(-offset / cellSize)));
+    }
+
+    private int lastVisible(double offset, int length, int count) {
+        return (int) Math.min(count - 1, Math.floor((length - offset) / cellSize));
+    }
+}
@@ -0,0 +1,192 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// the binary .maze format, about 8x smaller than the text files and loaded without any parsing:
+//
+//   header (40 bytes, big endian)
+//     int   magic 'MAZE'
+//     short version (1)
+//     short flags (0, unused for now)
+//     int   rows, cols
+//     int   start row, start col
+//     int   end row, end col
+//     int   number of special tiles (T, C, c)
+//     int   padding, so the wall plane starts on a long boundary
+//   wall plane: one bit per tile (1 = wall), packed in longs, bit b of long w is tile w * 64 + b
+//   special tiles: their cell ids (int each), then their types (one MazeGrid code byte each)
+//
+// java MazeFile in.txt out.maze converts a text maze to the binary format, java MazeFile in.maze out.txt goes back
+public class MazeFile {
+
+    public static final String EXTENSION = ".maze";
+
+    private static final int MAGIC = 0x4D415A45;     // "MAZE"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+
+    // loads either format, picked by the file extension
+    public static MazeGrid load(String filename) throws IOException {
+        if (filename.endsWith(EXTENSION))
+            return read(filename);
+        return new MazeLoader().mapGrid(filename);
+    }
+
+    public static void write(MazeGrid maze, String filename) throws IOException {
+        try (OutputStream out = new FileOutputStream(filename)) {
+            write(maze, out);
+        }
+    }
+
+    public static void write(MazeGrid maze, OutputStream out) throws IOException {
+        // read() wouldn't take the file back
+        if (maze.getStart() == -1)
+            throw new IllegalArgumentException("Maze must have exactly one start tile (A).");
+        if (maze.getEnd() == -1)
+            throw new IllegalArgumentException("Maze must have exactly one end tile (B).");
+
+        int size = maze.size();
+        int specials = 0;
+        for (int cell = 0; cell < size; cell++) {
+            if (isSpecial(maze.getCell(cell)))
+                specials++;
+        }
+
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeShort(0);
+        data.writeInt(maze.getRows());
+        data.writeInt(maze.getCols());
+        writePosition(data, maze, maze.getStart());
+        writePosition(data, maze, maze.getEnd());
+        data.writeInt(specials);
+        data.writeInt(0);
+
+        // the wall plane
+        for (int first = 0; first < size; first += 64) {
+            long word = 0;
+            int last = Math.min(size, first + 64);
+            for (int cell = first; cell < last; cell++) {
+                if (maze.isWall(cell))
+                    word |= 1L << (cell - first);
+            }
+            data.writeLong(word);
+        }
+
+        // the sparse list of special tiles, ids first and then the types
+        for (int cell = 0; cell < size; cell++) {
+            if (isSpecial(maze.getCell(cell)))
+                data.writeInt(cell);
+        }
+        for (int cell = 0; cell < size; cell++) {
+            if (isSpecial(maze.getCell(cell)))
+                data.writeByte(maze.getCell(cell));
+        }
+        data.flush();
+    }
+
+    // maps the file and expands the wall plane straight into the grid's cell array, a wall bit is already
+    // the WALL code (1) and a free bit the EMPTY code (0), then the few special tiles are put on top
+    public static MazeGrid read(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_SIZE)
+                throw new IllegalArgumentException("Not a maze file (too short): " + filename);
+            if (length > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Maze file is too big: " + filename);
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt(0) != MAGIC)
+                throw new IllegalArgumentException("Not a maze file (bad magic number): " + filename);
+            if (buffer.getShort(4) != VERSION)
+                throw new IllegalArgumentException("Unsupported maze file version " + buffer.getShort(4) + ": " + filename);
+
+            int rows = buffer.getInt(8);
+            int cols = buffer.getInt(12);
+            int specials = buffer.getInt(32);
+            if (rows <= 0 || cols <= 0 || (long) rows * cols > Integer.MAX_VALUE - 8 || specials < 0)
+                throw new IllegalArgumentException("Corrupt maze file header: " + filename);
+
+            int size = rows * cols;
+            int words = (int) ((size + 63L) / 64);
+            long expected = HEADER_SIZE + words * 8L + specials * 5L;
+            if (length != expected)
+                throw new IllegalArgumentException("Maze file has " + length + " bytes, expected " + expected + ": " + filename);
+
+            byte[] cells = new byte[size];
+            LongBuffer plane = buffer.position(HEADER_SIZE).slice().asLongBuffer();
+            for (int w = 0; w < words; w++) {
+                long word = plane.get(w);
+                if (word == 0)
+                    continue;
+                int first = w * 64;
+                int last = Math.min(size, first + 64);
+                for (int cell = first; cell < last; cell++) {
+                    cells[cell] = (byte) ((word >>> (cell - first)) & 1);
+                }
+            }
+
+            int ids = HEADER_SIZE + words * 8;
+            int types = ids + specials * 4;
+            for (int i = 0; i < specials; i++) {
+                int cell = buffer.getInt(ids + i * 4);
+                byte type = buffer.get(types + i);
+                if (cell < 0 || cell >= size || !isSpecial(type) || cells[cell] != MazeGrid.EMPTY)
+                    throw new IllegalArgumentException("Corrupt special tile entry " + i + " in " + filename);
+                cells[cell] = type;
+            }
+
+            placeEndPoint(buffer, 16, rows, cols, cells, MazeGrid.START, filename);
+            placeEndPoint(buffer, 24, rows, cols, cells, MazeGrid.END, filename);
+            return new MazeGrid(rows, cols, cells);
+        }
+    }
+
+    private static boolean isSpecial(byte type) {
+        return type == MazeGrid.TELEPORT || type == MazeGrid.COUNTER_UP || type == MazeGrid.COUNTER_DOWN;
+    }
+
+    private static void writePosition(DataOutputStream data, MazeGrid maze, int cell) throws IOException {
+        data.writeInt(maze.rowOf(cell));
+        data.writeInt(maze.colOf(cell));
+    }
+
+    private static void placeEndPoint(ByteBuffer buffer, int offset, int rows, int cols, byte[] cells, byte type,
+                                      String filename) {
+        int row = buffer.getInt(offset);
+        int col = buffer.getInt(offset + 4);
+        String name = type == MazeGrid.START ? "start" : "end";
+        // same rule as the text loader, exactly one A and one B
+        if (row == -1 && col == -1)
+            throw new IllegalArgumentException("Maze must have exactly one " + name + " tile ("
+                + (type == MazeGrid.START ? 'A' : 'B') + "): " + filename);
+        if (row < 0 || row >= rows || col < 0 || col >= cols || cells[row * cols + col] != MazeGrid.EMPTY)
+            throw new IllegalArgumentException("Corrupt " + name + " position in " + filename);
+        cells[row * cols + col] = type;
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("usage: java MazeFile <in.txt> <out.maze>   or   java MazeFile <in.maze> <out.txt>");
+            System.exit(2);
+        }
+        try {
+            MazeGrid maze = load(args[0]);
+            if (args[1].endsWith(EXTENSION)) {
+                write(maze, args[1]);
+            } else {
+                try (OutputStream out = new FileOutputStream(args[1])) {
+                    MazeGenerator.write(maze, out);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println(args[0] + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
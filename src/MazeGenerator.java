@@ -0,0 +1,481 @@
+import java.io.*;
+import java.util.SplittableRandom;
+
+// seedable maze generator for big test inputs, the same seed and settings always give the same maze.
+// mazes are built straight into a byte per cell (the MazeGrid codes) and written out row by row through a
+// buffered stream, so even 100M cell mazes never go through Strings or Tile objects.
+//
+//   java MazeGenerator [--algorithm backtracker] [--rows 1001] [--cols 1001] [--seed 42]
+//                      [--teleports n] [--counters-up n] [--counters-down n] [--density 0.3] <output file or ->
+//
+// the algorithms:
+//   backtracker: perfect maze (one path between any two tiles) with long winding corridors
+//   kruskal:     perfect maze with lots of short dead ends
+//   wilson:      uniformly random perfect maze, slower than the other two on very big grids
+//   rooms:       rectangular rooms joined by corridors
+//   noise:       every tile is a wall with probability density, plus a random path so A and B always connect
+// the start A is always at (1, 1) and the end B in the bottom right corner
+public class MazeGenerator {
+
+    public static final String[] ALGORITHMS = {"backtracker", "kruskal", "wilson", "rooms", "noise"};
+
+    // the characters of the MazeGrid cell codes, index = code
+    private static final byte[] CHARS = {' ', '#', 'A', 'B', 'T', 'C', 'c'};
+
+    private final int rows;
+    private final int cols;
+    private final long seed;
+    private SplittableRandom random;
+
+    // special tiles dropped on random empty tiles after the maze is carved
+    private int teleports;
+    private int counterUps;
+    private int counterDowns;
+
+    // chance of a wall for the noise algorithm
+    private double density = 0.3;
+
+    public MazeGenerator(int rows, int cols, long seed) {
+        if (rows < 5 || cols < 5) {
+            throw new IllegalArgumentException("Mazes must be at least 5x5.");
+        }
+        if ((long) rows * cols > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Maze is too big: " + rows + "x" + cols);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.seed = seed;
+    }
+
+    public void setSpecialTiles(int teleports, int counterUps, int counterDowns) {
+        if (teleports < 0 || counterUps < 0 || counterDowns < 0) {
+            throw new IllegalArgumentException("Special tile counts can't be negative.");
+        }
+        this.teleports = teleports;
+        this.counterUps = counterUps;
+        this.counterDowns = counterDowns;
+    }
+
+    public void setDensity(double density) {
+        if (density < 0 || density >= 1) {
+            throw new IllegalArgumentException("Wall density must be in [0, 1).");
+        }
+        this.density = density;
+    }
+
+    public MazeGrid generate(String algorithm) {
+        return new MazeGrid(rows, cols, generateCells(algorithm));
+    }
+
+    // builds the cells of the maze (MazeGrid codes, row * cols + col)
+    public byte[] generateCells(String algorithm) {
+        random = new SplittableRandom(seed);
+        byte[] cells;
+        switch (algorithm) {
+            case "backtracker": cells = backtracker(); break;
+            case "kruskal": cells = kruskal(); break;
+            case "wilson": cells = wilson(); break;
+            case "rooms": cells = rooms(); break;
+            case "noise": cells = noise(); break;
+            default:
+                throw new IllegalArgumentException("Unknown generator: " + algorithm);
+        }
+
+        cells[cols + 1] = MazeGrid.START;
+        cells[endCell()] = MazeGrid.END;
+        placeSpecialTiles(cells);
+        return cells;
+    }
+
+    // generates the maze and writes it in the MazeLoader text format
+    public void generateTo(String algorithm, OutputStream out) throws IOException {
+        writeCells(rows, cols, generateCells(algorithm), out);
+    }
+
+    // writes any grid in the MazeLoader text format
+    public static void write(MazeGrid maze, OutputStream out) throws IOException {
+        byte[] line = new byte[maze.getCols() + 1];
+        line[line.length - 1] = '\n';
+        OutputStream buffered = new BufferedOutputStream(out, 1 << 16);
+        for (int i = 0; i < maze.getRows(); i++) {
+            for (int j = 0; j < maze.getCols(); j++) {
+                line[j] = CHARS[maze.getCell(maze.index(i, j))];
+            }
+            buffered.write(line);
+        }
+        buffered.flush();
+    }
+
+    private static void writeCells(int rows, int cols, byte[] cells, OutputStream out) throws IOException {
+        byte[] line = new byte[cols + 1];
+        line[cols] = '\n';
+        OutputStream buffered = new BufferedOutputStream(out, 1 << 16);
+        for (int i = 0; i < rows; i++) {
+            int rowStart = i * cols;
+            for (int j = 0; j < cols; j++) {
+                line[j] = CHARS[cells[rowStart + j]];
+            }
+            buffered.write(line);
+        }
+        buffered.flush();
+    }
+
+    // the perfect maze algorithms work on a lattice of the tiles with odd row and col, the tiles between two
+    // lattice tiles are the walls they knock down. with an even size the last row/col stays a wall
+    private int latticeRows() { return (rows - 1) / 2; }
+    private int latticeCols() { return (cols - 1) / 2; }
+    private int latticeToCell(int node) {
+        return (2 * (node / latticeCols()) + 1) * cols + 2 * (node % latticeCols()) + 1;
+    }
+
+    // the end goes to the bottom right lattice tile, which is also inside the open area of rooms and noise
+    private int endCell() {
+        return (2 * latticeRows() - 1) * cols + 2 * latticeCols() - 1;
+    }
+
+    // lattice neighbor of node in direction d, -1 if it would leave the lattice
+    private int latticeNeighbor(int node, int d) {
+        int row = node / latticeCols() + MazeGrid.DIRECTION_ROWS[d];
+        int col = node % latticeCols() + MazeGrid.DIRECTION_COLS[d];
+        if (row < 0 || row >= latticeRows() || col < 0 || col >= latticeCols())
+            return -1;
+        return row * latticeCols() + col;
+    }
+
+    // knocks down the wall between two neighboring lattice tiles and opens both of them
+    private void connect(byte[] cells, int node, int other) {
+        int a = latticeToCell(node);
+        int b = latticeToCell(other);
+        cells[a] = MazeGrid.EMPTY;
+        cells[b] = MazeGrid.EMPTY;
+        cells[(a + b) >>> 1] = MazeGrid.EMPTY;
+    }
+
+    // depth first carving with an explicit stack, from a random neighbor each step until everything is reached
+    private byte[] backtracker() {
+        byte[] cells = filled(MazeGrid.WALL);
+        int nodes = latticeRows() * latticeCols();
+        int[] stack = new int[nodes];
+        int[] options = new int[MazeGrid.DIRECTIONS];
+        int top = 0;
+        stack[top++] = 0;
+        cells[latticeToCell(0)] = MazeGrid.EMPTY;
+
+        while (top > 0) {
+            int node = stack[top - 1];
+            int count = 0;
+            for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                int next = latticeNeighbor(node, d);
+                if (next != -1 && cells[latticeToCell(next)] == MazeGrid.WALL)
+                    options[count++] = next;
+            }
+            if (count == 0) {
+                top--;
+                continue;
+            }
+            int next = options[random.nextInt(count)];
+            connect(cells, node, next);
+            stack[top++] = next;
+        }
+        return cells;
+    }
+
+    // every wall between two lattice tiles in random order, knocked down if the two sides aren't connected yet
+    // (union-find over the lattice). edge e is node * 2 for the wall below node, node * 2 + 1 for the one to its right
+    private byte[] kruskal() {
+        byte[] cells = filled(MazeGrid.WALL);
+        int nodes = latticeRows() * latticeCols();
+        int[] parent = new int[nodes];
+        for (int i = 0; i < nodes; i++)
+            parent[i] = i;
+
+        int[] edges = new int[nodes * 2];
+        int edgeCount = 0;
+        for (int node = 0; node < nodes; node++) {
+            if (latticeNeighbor(node, MazeGrid.DOWN) != -1)
+                edges[edgeCount++] = node * 2;
+            if (latticeNeighbor(node, MazeGrid.RIGHT) != -1)
+                edges[edgeCount++] = node * 2 + 1;
+        }
+        shuffle(edges, edgeCount);
+
+        for (int i = 0; i < edgeCount; i++) {
+            int node = edges[i] >>> 1;
+            int other = latticeNeighbor(node, (edges[i] & 1) == 0 ? MazeGrid.DOWN : MazeGrid.RIGHT);
+            int a = find(parent, node);
+            int b = find(parent, other);
+            if (a != b) {
+                parent[a] = b;
+                connect(cells, node, other);
+            }
+        }
+        // a 1 tile lattice has no walls to knock down
+        cells[latticeToCell(0)] = MazeGrid.EMPTY;
+        return cells;
+    }
+
+    // union-find root with path halving
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    // loop erased random walks: from every tile not in the maze yet, walk randomly until we hit the maze, then
+    // carve the walk with its loops removed. the last direction taken out of each tile is all we need to remember
+    private byte[] wilson() {
+        byte[] cells = filled(MazeGrid.WALL);
+        int nodes = latticeRows() * latticeCols();
+        byte[] exit = new byte[nodes];
+        cells[latticeToCell(random.nextInt(nodes))] = MazeGrid.EMPTY;
+
+        for (int from = 0; from < nodes; from++) {
+            if (cells[latticeToCell(from)] != MazeGrid.WALL)
+                continue;
+
+            int node = from;
+            while (cells[latticeToCell(node)] == MazeGrid.WALL) {
+                int d;
+                int next;
+                do {
+                    d = random.nextInt(MazeGrid.DIRECTIONS);
+                    next = latticeNeighbor(node, d);
+                } while (next == -1);
+                exit[node] = (byte) d;
+                node = next;
+            }
+
+            // only opens the tile we leave and the wall after it, the loop stops at the first tile already in the maze
+            node = from;
+            while (cells[latticeToCell(node)] == MazeGrid.WALL) {
+                int next = latticeNeighbor(node, exit[node]);
+                int cell = latticeToCell(node);
+                cells[cell] = MazeGrid.EMPTY;
+                cells[(cell + latticeToCell(next)) >>> 1] = MazeGrid.EMPTY;
+                node = next;
+            }
+        }
+        return cells;
+    }
+
+    // random rooms that don't overlap, each one joined to the previous one by an L shaped corridor, so they are all
+    // connected. the first room always covers the start and the last one the end
+    private byte[] rooms() {
+        byte[] cells = filled(MazeGrid.WALL);
+        int maxSide = Math.max(3, Math.min(16, Math.min(rows, cols) / 3));
+        int attempts = Math.max(8, (int) ((long) rows * cols / 150));
+
+        int startCell = cols + 1;
+        int previousRow = 1;
+        int previousCol = 1;
+        carveRoom(cells, 1, 1, Math.min(maxSide, rows - 2), Math.min(maxSide, cols - 2));
+
+        for (int i = 0; i < attempts; i++) {
+            int height = 3 + random.nextInt(maxSide - 2);
+            int width = 3 + random.nextInt(maxSide - 2);
+            if (height > rows - 2 || width > cols - 2)
+                continue;
+            int top = 1 + random.nextInt(rows - 1 - height);
+            int left = 1 + random.nextInt(cols - 1 - width);
+            if (!isSolid(cells, top - 1, left - 1, height + 2, width + 2))
+                continue;
+
+            carveRoom(cells, top, left, height, width);
+            int centerRow = top + height / 2;
+            int centerCol = left + width / 2;
+            carveCorridor(cells, previousRow, previousCol, centerRow, centerCol);
+            previousRow = centerRow;
+            previousCol = centerCol;
+        }
+
+        // the end tile gets its own small room, joined like the others
+        int end = endCell();
+        int endRow = end / cols;
+        int endCol = end % cols;
+        carveRoom(cells, Math.max(1, endRow - 2), Math.max(1, endCol - 2), Math.min(3, endRow), Math.min(3, endCol));
+        carveCorridor(cells, previousRow, previousCol, endRow, endCol);
+        cells[startCell] = MazeGrid.EMPTY;
+        return cells;
+    }
+
+    private boolean isSolid(byte[] cells, int top, int left, int height, int width) {
+        for (int i = top; i < top + height; i++) {
+            for (int j = left; j < left + width; j++) {
+                if (i <= 0 || j <= 0 || i >= rows - 1 || j >= cols - 1)
+                    continue;
+                if (cells[i * cols + j] != MazeGrid.WALL)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private void carveRoom(byte[] cells, int top, int left, int height, int width) {
+        for (int i = top; i < top + height && i < rows - 1; i++) {
+            for (int j = left; j < left + width && j < cols - 1; j++) {
+                cells[i * cols + j] = MazeGrid.EMPTY;
+            }
+        }
+    }
+
+    // horizontal then vertical, or the other way around
+    private void carveCorridor(byte[] cells, int fromRow, int fromCol, int toRow, int toCol) {
+        boolean horizontalFirst = random.nextBoolean();
+        int cornerRow = horizontalFirst ? fromRow : toRow;
+        int cornerCol = horizontalFirst ? toCol : fromCol;
+        carveLine(cells, fromRow, fromCol, cornerRow, cornerCol);
+        carveLine(cells, cornerRow, cornerCol, toRow, toCol);
+    }
+
+    private void carveLine(byte[] cells, int fromRow, int fromCol, int toRow, int toCol) {
+        int rowStep = Integer.signum(toRow - fromRow);
+        int colStep = Integer.signum(toCol - fromCol);
+        int row = fromRow;
+        int col = fromCol;
+        cells[row * cols + col] = MazeGrid.EMPTY;
+        while (row != toRow || col != toCol) {
+            row += rowStep;
+            col += colStep;
+            cells[row * cols + col] = MazeGrid.EMPTY;
+        }
+    }
+
+    // independent random walls with a border, plus a random right/down staircase from the start to the end
+    private byte[] noise() {
+        byte[] cells = new byte[rows * cols];
+        int threshold = (int) (density * (1 << 24));
+        for (int i = 0; i < cells.length; i++) {
+            if (random.nextInt(1 << 24) < threshold)
+                cells[i] = MazeGrid.WALL;
+        }
+        for (int i = 0; i < rows; i++) {
+            cells[i * cols] = MazeGrid.WALL;
+            cells[i * cols + cols - 1] = MazeGrid.WALL;
+        }
+        for (int j = 0; j < cols; j++) {
+            cells[j] = MazeGrid.WALL;
+            cells[(rows - 1) * cols + j] = MazeGrid.WALL;
+        }
+
+        int end = endCell();
+        int endRow = end / cols;
+        int endCol = end % cols;
+        int row = 1;
+        int col = 1;
+        cells[row * cols + col] = MazeGrid.EMPTY;
+        while (row < endRow || col < endCol) {
+            if (row == endRow || (col < endCol && random.nextBoolean()))
+                col++;
+            else
+                row++;
+            cells[row * cols + col] = MazeGrid.EMPTY;
+        }
+        return cells;
+    }
+
+    // drops the special tiles on random empty tiles, random draws first and then a scan from a random tile,
+    // so a nearly full maze just gets fewer special tiles instead of looping forever
+    private void placeSpecialTiles(byte[] cells) {
+        place(cells, MazeGrid.TELEPORT, teleports);
+        place(cells, MazeGrid.COUNTER_UP, counterUps);
+        place(cells, MazeGrid.COUNTER_DOWN, counterDowns);
+    }
+
+    private void place(byte[] cells, byte type, int count) {
+        for (int placed = 0; placed < count; placed++) {
+            int cell = -1;
+            for (int draw = 0; draw < 64 && cell == -1; draw++) {
+                int candidate = random.nextInt(cells.length);
+                if (cells[candidate] == MazeGrid.EMPTY)
+                    cell = candidate;
+            }
+            if (cell == -1) {
+                int from = random.nextInt(cells.length);
+                for (int i = 0; i < cells.length && cell == -1; i++) {
+                    int candidate = (from + i) % cells.length;
+                    if (cells[candidate] == MazeGrid.EMPTY)
+                        cell = candidate;
+                }
+            }
+            if (cell == -1)
+                return;
+            cells[cell] = type;
+        }
+    }
+
+    private byte[] filled(byte type) {
+        byte[] cells = new byte[rows * cols];
+        java.util.Arrays.fill(cells, type);
+        return cells;
+    }
+
+    private void shuffle(int[] values, int count) {
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+
+    public static void main(String[] args) {
+        String algorithm = "backtracker";
+        int rows = 101;
+        int cols = 101;
+        long seed = System.nanoTime();
+        int teleports = 0;
+        int counterUps = 0;
+        int counterDowns = 0;
+        double density = 0.3;
+        String output = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--") || arg.equals("-")) {
+                    output = arg;
+                    continue;
+                }
+                if (i + 1 >= args.length)
+                    throw new IllegalArgumentException("Missing value for " + arg);
+                String value = args[++i];
+                switch (arg) {
+                    case "--algorithm": algorithm = value; break;
+                    case "--rows": rows = Integer.parseInt(value); break;
+                    case "--cols": cols = Integer.parseInt(value); break;
+                    case "--seed": seed = Long.parseLong(value); break;
+                    case "--teleports": teleports = Integer.parseInt(value); break;
+                    case "--counters-up": counterUps = Integer.parseInt(value); break;
+                    case "--counters-down": counterDowns = Integer.parseInt(value); break;
+                    case "--density": density = Double.parseDouble(value); break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            if (output == null)
+                throw new IllegalArgumentException("No output file given (use - for stdout).");
+
+            MazeGenerator generator = new MazeGenerator(rows, cols, seed);
+            generator.setSpecialTiles(teleports, counterUps, counterDowns);
+            generator.setDensity(density);
+
+            if (output.equals("-")) {
+                generator.generateTo(algorithm, System.out);
+            } else {
+                try (OutputStream out = new FileOutputStream(output)) {
+                    generator.generateTo(algorithm, out);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("usage: java MazeGenerator [--algorithm " + String.join("|", ALGORITHMS) + "] [--rows n] [--cols n]"
+                + " [--seed n] [--teleports n] [--counters-up n] [--counters-down n] [--density p] <output file or ->");
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Could not write the maze: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
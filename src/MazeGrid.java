@@ -0,0 +1,252 @@
+// compact version of the maze used by the solver. instead of a Tile object per cell (row, col, type, parent, visited)
+// we keep one byte per cell in a flat array indexed by row * cols + col, so big mazes fit in memory and the
+// algorithms walk a single contiguous array instead of chasing pointers
+public class MazeGrid {
+
+    // cell type codes, they follow the same order as the TileType enum so we can convert between them with the ordinal
+    public static final byte EMPTY = 0;
+    public static final byte WALL = 1;
+    public static final byte START = 2;
+    public static final byte END = 3;
+    public static final byte TELEPORT = 4;
+    public static final byte COUNTER_UP = 5;
+    public static final byte COUNTER_DOWN = 6;
+
+    private static final TileType[] TILE_TYPES = TileType.values();
+
+    // the 4 directions we can move in, direction d is bit (1 << d) in a cell's open mask
+    public static final int UP = 0;
+    public static final int DOWN = 1;
+    public static final int LEFT = 2;
+    public static final int RIGHT = 3;
+    public static final int DIRECTIONS = 4;
+
+    // row and column change for each direction (up, down, left, right)
+    public static final int[] DIRECTION_ROWS = {-1, 1, 0, 0};
+    public static final int[] DIRECTION_COLS = {0, 0, -1, 1};
+
+    // grid size and the cell types
+    private final int rows;
+    private final int cols;
+    private final byte[] cells;
+
+    // for every cell, a bitmask of the directions we can step to (inside the grid and not a wall),
+    // plus the cell id offset of each direction, so finding neighbors needs no bounds checks and no allocation
+    private final byte[] openMask;
+    private final int[] offsets;
+
+    // cell ids of our two end points, -1 if the maze doesn't have them
+    private final int start;
+    private final int end;
+
+    // number of teleport tiles, setWall can't add or remove them so it never changes
+    private final int teleports;
+
+    // contentHash() is remembered until the next setWall, hashing a big maze takes a while.
+    // one volatile field so a thread never sees a half published hash, UNHASHED means it has to be computed
+    // (a maze that really hashes to UNHASHED just gets hashed every time)
+    private static final long UNHASHED = 0;
+    private volatile long hash = UNHASHED;
+
+    // number of setWall calls so far, lets things built from the grid notice it was edited
+    private int modCount;
+
+    public MazeGrid(int rows, int cols, byte[] cells) {
+        if (rows <= 0 || cols <= 0 || (long) rows * cols != cells.length) {
+            throw new IllegalArgumentException("Grid size does not match the number of cells.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = cells;
+        int[] endPoints = locateEndPoints();
+        this.start = endPoints[0];
+        this.end = endPoints[1];
+        this.teleports = endPoints[2];
+        this.offsets = new int[] {-cols, cols, -1, 1};
+        this.openMask = buildOpenMasks();
+    }
+
+    // builds the grid from the output of MazeLoader.load
+    public static MazeGrid fromChars(char[][] charMaze) {
+        int rows = charMaze.length;
+        int cols = charMaze[0].length;
+        if ((long) rows * cols > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Maze is too big: " + rows + "x" + cols);
+        byte[] cells = new byte[rows * cols];
+
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                cells[i * cols + j] = typeOf(charMaze[i][j]);
+            }
+        }
+        return new MazeGrid(rows, cols, cells);
+    }
+
+    // builds the grid from an already converted tile array (for code that still works with Tile[][])
+    public static MazeGrid fromTiles(Tile[][] tiles) {
+        int rows = tiles.length;
+        int cols = tiles[0].length;
+        if ((long) rows * cols > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Maze is too big: " + rows + "x" + cols);
+        byte[] cells = new byte[rows * cols];
+
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                cells[i * cols + j] = (byte) tiles[i][j].getType().ordinal();
+            }
+        }
+        return new MazeGrid(rows, cols, cells);
+    }
+
+    // maps a maze file character to its cell type code
+    public static byte typeOf(char ch) {
+        switch (ch) {
+            case '#': return WALL;
+            case 'A': return START;
+            case 'B': return END;
+            case 'T': return TELEPORT;
+            case 'C': return COUNTER_UP;
+            case 'c': return COUNTER_DOWN;
+            case ' ': return EMPTY;
+            default:
+                throw new IllegalArgumentException("Unknown tile character: " + ch);
+        }
+    }
+
+    // finds the start and end cells once (in a single scan), so the solver doesn't have to scan the grid every time
+    // (the same scan also counts the teleports)
+    private int[] locateEndPoints() {
+        int[] found = {-1, -1, 0};
+        for (int i = 0; i < cells.length; i++) {
+            byte type = cells[i];
+            if (type == START)
+                found[0] = i;
+            else if (type == END)
+                found[1] = i;
+            else if (type == TELEPORT)
+                found[2]++;
+        }
+        return found;
+    }
+
+    // precomputes the open directions of every cell once, walls get an empty mask.
+    // the 4 checks are written out instead of looping over the directions, this runs over every cell of every
+    // loaded maze so it's a good part of the load time for big ones
+    private byte[] buildOpenMasks() {
+        byte[] masks = new byte[cells.length];
+        for (int i = 0; i < rows; i++) {
+            int rowStart = i * cols;
+            boolean hasUp = i > 0;
+            boolean hasDown = i < rows - 1;
+            for (int j = 0; j < cols; j++) {
+                int cell = rowStart + j;
+                if (cells[cell] == WALL)
+                    continue;
+
+                int mask = 0;
+                if (hasUp && cells[cell - cols] != WALL) mask |= 1 << UP;
+                if (hasDown && cells[cell + cols] != WALL) mask |= 1 << DOWN;
+                if (j > 0 && cells[cell - 1] != WALL) mask |= 1 << LEFT;
+                if (j < cols - 1 && cells[cell + 1] != WALL) mask |= 1 << RIGHT;
+                masks[cell] = (byte) mask;
+            }
+        }
+        return masks;
+    }
+
+    // neighbor helpers, the usual loop is:
+    //   int open = maze.openDirections(cell);
+    //   for (int d = 0; d < MazeGrid.DIRECTIONS; d++) if ((open & (1 << d)) != 0) { int n = maze.neighbor(cell, d); ... }
+    public int openDirections(int cell) { return openMask[cell]; }
+    public boolean canMove(int cell, int direction) { return (openMask[cell] & (1 << direction)) != 0; }
+    public int neighbor(int cell, int direction) { return cell + offsets[direction]; }
+
+    // index helpers
+    public int index(int row, int col) { return row * cols + col; }
+    public int rowOf(int cell) { return cell / cols; }
+    public int colOf(int cell) { return cell % cols; }
+    public boolean inBounds(int row, int col) { return row >= 0 && row < rows && col >= 0 && col < cols; }
+
+    // getters
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int size() { return cells.length; }
+    public int getStart() { return start; }
+    public int getEnd() { return end; }
+    public int getTeleportCount() { return teleports; }
+    public int getModCount() { return modCount; }
+    public byte getCell(int cell) { return cells[cell]; }
+    public TileType getType(int cell) { return TILE_TYPES[cells[cell]]; }
+
+    // cell status
+    public boolean isWall(int cell) { return cells[cell] == WALL; }
+    public boolean isEnd(int cell) { return cells[cell] == END; }
+
+    // 64 bit FNV-1a hash of the size and every tile, two grids with the same hash are the same maze
+    // (used to check that a saved index or a cached result belongs to this maze)
+    public long contentHash() {
+        long hash = this.hash;
+        if (hash != UNHASHED)
+            return hash;
+        hash = 0xcbf29ce484222325L;
+        hash = (hash ^ rows) * 0x100000001b3L;
+        hash = (hash ^ cols) * 0x100000001b3L;
+        for (byte type : cells) {
+            hash = (hash ^ type) * 0x100000001b3L;
+        }
+        this.hash = hash;
+        return hash;
+    }
+
+    // turns an empty tile into a wall or back, and fixes the open masks of the tile and its neighbors.
+    // the only thing that changes a grid after it's built, used for editing a maze (see IncrementalSolver).
+    // it isn't synchronized: the caller has to make sure no solve, SolveCache lookup or parallel search runs on
+    // the grid while it's edited, the solvers count on it staying the same during a solve
+    public void setWall(int cell, boolean wall) {
+        byte type = cells[cell];
+        if (type != EMPTY && type != WALL) {
+            throw new IllegalArgumentException("Only empty tiles can become walls, (" + rowOf(cell) + ", " + colOf(cell) + ") is " + getType(cell));
+        }
+        cells[cell] = wall ? WALL : EMPTY;
+        hash = UNHASHED;
+        modCount++;
+
+        int row = rowOf(cell);
+        int col = colOf(cell);
+        int mask = 0;
+        for (int d = 0; d < DIRECTIONS; d++) {
+            int newRow = row + DIRECTION_ROWS[d];
+            int newCol = col + DIRECTION_COLS[d];
+            if (!inBounds(newRow, newCol))
+                continue;
+            int other = cell + offsets[d];
+            if (cells[other] == WALL)
+                continue;
+            mask |= 1 << d;
+            // the neighbor looks back at us in the opposite direction (UP <-> DOWN, LEFT <-> RIGHT)
+            int back = 1 << (d ^ 1);
+            openMask[other] = (byte) (wall ? openMask[other] & ~back : openMask[other] | back);
+        }
+        openMask[cell] = (byte) (wall ? 0 : mask);
+    }
+
+    // Tile objects are only created when someone needs one (the UI or the final path)
+    public Tile tileAt(int cell) {
+        return new Tile(rowOf(cell), colOf(cell), getType(cell));
+    }
+
+    public Tile tileAt(int row, int col) {
+        return tileAt(index(row, col));
+    }
+
+    // expands the whole grid back to tiles, only meant for small mazes
+    public Tile[][] toTiles() {
+        Tile[][] tiles = new Tile[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                tiles[i][j] = tileAt(i, j);
+            }
+        }
+        return tiles;
+    }
+}
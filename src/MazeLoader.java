@@ -1,5 +1,12 @@
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 public class MazeLoader {
 
@@ -13,6 +20,22 @@ public class MazeLoader {
     private int counterIncreaseCount = 0;    // char C
     private int counterDecreaseCount = 0;    // char c
 
+    // MazeGrid cell code of every byte value, -1 for the characters that aren't allowed in a maze file
+    private static final byte[] CELL_TYPES = new byte[256];
+    static {
+        Arrays.fill(CELL_TYPES, (byte) -1);
+        for (char ch : new char[] {'#', 'A', 'B', 'T', 'C', 'c', ' '}) {
+            CELL_TYPES[ch] = MazeGrid.typeOf(ch);
+        }
+    }
+
+    // mapGrid maps big files in windows of this size (a single mapping can't go past 2 GB)
+    private static final long MAP_WINDOW = 1L << 30;
+
+    // files from this size on are parsed in parallel chunks of about CHUNK_SIZE bytes
+    private static final long PARALLEL_THRESHOLD = 32L << 20;
+    private static final int CHUNK_SIZE = 8 << 20;
+
 
     public char[][] load(String filename) throws IOException {
     	
@@ -83,4 +106,355 @@ public class MazeLoader {
         return maze;
     }
 
+
+    // same checks as load, but it gives the compact MazeGrid and is made for huge files: the file is memory
+    // mapped and validated, counted and converted to cell codes straight from its bytes, without Strings, readers
+    // or a char[][] in between.
+    // lines end with \n, \r\n or \r like with readLine, and blank lines are skipped like in load.
+    // big files are parsed in parallel chunks on the common pool when there is more than one core
+    public MazeGrid mapGrid(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            if (channel.size() >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1)
+                return mapChunks(channel, ForkJoinPool.commonPool(), CHUNK_SIZE);
+            return mapSequential(channel);
+        }
+    }
+
+    // always splits the file into chunks and parses them on the given pool
+    public MazeGrid mapGrid(String filename, ForkJoinPool pool) throws IOException {
+        return mapGrid(filename, pool, CHUNK_SIZE);
+    }
+
+    MazeGrid mapGrid(String filename, ForkJoinPool pool, int chunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            return mapChunks(channel, pool, chunkSize);
+        }
+    }
+
+    // one pass over the whole file on this thread
+    private MazeGrid mapSequential(FileChannel channel) throws IOException {
+        GridParser parser = new GridParser(channel.size());
+        parse(channel, 0, channel.size(), parser);
+        parser.finish();
+
+        addCounts(parser);
+        checkCounts();
+        return new MazeGrid(parser.rows, parser.rowLength, parser.cells());
+    }
+
+    // the file is cut into chunks that start right after a \n, then
+    //   pass 1: every chunk is validated and counted on its own (rows, row length, special tiles)
+    //   merge:  the chunk counts are added up, every chunk must have the row length of the first one
+    //   pass 2: now that we know how many rows come before each chunk, the chunks fill their part of the cells
+    // a chunk with a bad line doesn't know its file line number, so for broken files we just parse the file again
+    // on one thread, that way the error message is exactly the one the sequential loader gives
+    private MazeGrid mapChunks(FileChannel channel, ForkJoinPool pool, int chunkSize) throws IOException {
+        List<Chunk> chunks = splitAtLines(channel, chunkSize);
+
+        runChunks(pool, chunks, chunk -> {
+            chunk.parser = new GridParser();
+            parse(channel, chunk.from, chunk.to, chunk.parser);
+            chunk.parser.finish();
+        });
+
+        int rowLength = -1;
+        long rows = 0;
+        for (Chunk chunk : chunks) {
+            GridParser parser = chunk.parser;
+            if (parser.failed || (parser.rows > 0 && rowLength != -1 && parser.rowLength != rowLength))
+                return mapSequential(channel);
+            if (parser.rows > 0 && rowLength == -1)
+                rowLength = parser.rowLength;
+            chunk.firstCell = rows * Math.max(rowLength, 0);
+            rows += parser.rows;
+        }
+        if (rows * Math.max(rowLength, 0) > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Maze is too big: " + rows + "x" + rowLength);
+
+        for (Chunk chunk : chunks) {
+            addCounts(chunk.parser);
+        }
+        checkCounts();
+
+        byte[] cells = new byte[(int) (rows * Math.max(rowLength, 0))];
+        int cols = rowLength;
+        runChunks(pool, chunks, chunk -> {
+            GridParser filler = new GridParser(cells, (int) chunk.firstCell, cols);
+            parse(channel, chunk.from, chunk.to, filler);
+            filler.finish();
+        });
+
+        return new MazeGrid((int) rows, rowLength, cells);
+    }
+
+    // a byte range of the file, from the start of a line to the start of another one (or the end of the file)
+    private static class Chunk {
+        private final long from;
+        private final long to;
+        private GridParser parser;
+        private long firstCell;
+
+        Chunk(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+
+    // cuts the file about every chunkSize bytes, each cut moves forward to just after the next \n
+    private static List<Chunk> splitAtLines(FileChannel channel, int chunkSize) throws IOException {
+        long length = channel.size();
+        List<Chunk> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long from = 0;
+
+        while (from < length) {
+            long cut = Math.min(length, from + chunkSize);
+            // look for the end of the line the cut falls in
+            while (cut < length) {
+                probe.clear();
+                int read = channel.read(probe, cut);
+                if (read <= 0) {
+                    cut = length;
+                    break;
+                }
+                int newline = -1;
+                for (int i = 0; i < read; i++) {
+                    if (probe.get(i) == '\n') {
+                        newline = i;
+                        break;
+                    }
+                }
+                if (newline != -1) {
+                    cut += newline + 1;
+                    break;
+                }
+                cut += read;
+            }
+            chunks.add(new Chunk(from, Math.min(cut, length)));
+            from = cut;
+        }
+        return chunks;
+    }
+
+    private interface ChunkWork {
+        void run(Chunk chunk) throws IOException;
+    }
+
+    // one fork-join task per chunk, waits for all of them
+    private static void runChunks(ForkJoinPool pool, List<Chunk> chunks, ChunkWork work) throws IOException {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            tasks.add(ForkJoinTask.adapt(() -> {
+                try {
+                    work.run(chunk);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+        try {
+            pool.submit(() -> ForkJoinTask.invokeAll(tasks)).join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // feeds the bytes [from, to) of the file to the parser, mapping at most MAP_WINDOW bytes at a time
+    private static void parse(FileChannel channel, long from, long to, GridParser parser) throws IOException {
+        byte[] block = new byte[1 << 16];
+        for (long offset = from; offset < to; offset += MAP_WINDOW) {
+            int windowSize = (int) Math.min(MAP_WINDOW, to - offset);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, windowSize);
+            // walking a small array is a lot faster than a get() per byte on the mapped buffer
+            while (buffer.hasRemaining()) {
+                int count = Math.min(block.length, buffer.remaining());
+                buffer.get(block, 0, count);
+                for (int i = 0; i < count; i++) {
+                    parser.accept(block[i] & 0xFF);
+                }
+            }
+        }
+    }
+
+    private void addCounts(GridParser parser) {
+        startCount += parser.startCount;
+        endCount += parser.endCount;
+        teleportCount += parser.teleportCount;
+        counterIncreaseCount += parser.counterIncreaseCount;
+        counterDecreaseCount += parser.counterDecreaseCount;
+    }
+
+    private void checkCounts() {
+        // Check tile counts
+        if (startCount != 1) throw new IllegalArgumentException("Maze must have exactly one start tile (A).");
+        if (endCount != 1) throw new IllegalArgumentException("Maze must have exactly one end tile (B).");
+    }
+
+    // turns the bytes of a maze file into cell codes one byte at a time, with the same checks as load.
+    // it works in one of three ways:
+    //   GridParser(fileLength):                the whole file, the cell array grows as needed
+    //   GridParser():                          one chunk, only validates and counts (failed is set instead of throwing)
+    //   GridParser(cells, firstCell, rowLength): one already validated chunk, writes its rows into a shared array
+    // only non empty cells are ever written, the arrays start out zeroed (EMPTY), so the whitespace of a blank line
+    // we later skip never touches the array and a chunk never writes outside of its own rows
+    private static class GridParser {
+        private final long fileLength;
+        private final boolean growing;
+        private final boolean scanOnly;
+        private byte[] cells;
+        private int size;
+        private int rows;
+        private int rowLength = -1;
+        private boolean failed;
+
+        private int startCount;
+        private int endCount;
+        private int teleportCount;
+        private int counterIncreaseCount;
+        private int counterDecreaseCount;
+
+        // the line we are in: its number in the file, length so far, whether it's only whitespace so far, and the
+        // first bad character in it (only reported once we know the line isn't a blank one that gets skipped)
+        private long line = 1;
+        private int col;
+        private boolean blank = true;
+        private int badCol = -1;
+        private int badByte;
+        private boolean afterCR;
+
+        GridParser(long fileLength) {
+            this.fileLength = fileLength;
+            this.growing = true;
+            this.scanOnly = false;
+            this.cells = new byte[1 << 16];
+        }
+
+        GridParser() {
+            this.fileLength = 0;
+            this.growing = false;
+            this.scanOnly = true;
+        }
+
+        GridParser(byte[] cells, int firstCell, int rowLength) {
+            this.fileLength = 0;
+            this.growing = false;
+            this.scanOnly = false;
+            this.cells = cells;
+            this.size = firstCell;
+            this.rowLength = rowLength;
+        }
+
+        void accept(int b) {
+            if (failed)
+                return;
+
+            if (b == '\n' || b == '\r') {
+                // the \n of a \r\n was already handled by the \r
+                if (b == '\n' && afterCR) {
+                    afterCR = false;
+                    return;
+                }
+                afterCR = b == '\r';
+                endLine();
+                return;
+            }
+            afterCR = false;
+
+            // the rest of a multi byte UTF-8 character, its first byte already counted as one (invalid) character
+            if ((b & 0xC0) == 0x80)
+                return;
+
+            // same as String.trim(), every char up to ' ' counts as whitespace
+            if (b > ' ')
+                blank = false;
+
+            byte type = CELL_TYPES[b];
+            if (type == -1) {
+                if (badCol == -1) {
+                    badCol = col;
+                    badByte = b;
+                }
+                type = MazeGrid.EMPTY;
+            }
+
+            // Count special tiles
+            switch (type) {
+                case MazeGrid.START -> startCount++;
+                case MazeGrid.END -> endCount++;
+                case MazeGrid.TELEPORT -> teleportCount++;
+                case MazeGrid.COUNTER_UP -> counterIncreaseCount++;
+                case MazeGrid.COUNTER_DOWN -> counterDecreaseCount++;
+            }
+
+            // grow the cell array when it's full
+            if (growing && size == cells.length) {
+                if (size >= Integer.MAX_VALUE - 8)
+                    throw new IllegalArgumentException("Maze is too big, line " + line + " goes past " + size + " tiles.");
+                cells = Arrays.copyOf(cells, (int) Math.min(Integer.MAX_VALUE - 8, cells.length * 2L));
+            }
+            if (type != MazeGrid.EMPTY && !scanOnly)
+                cells[size] = type;
+            size++;
+            col++;
+        }
+
+        // the last line doesn't need a line break after it
+        void finish() {
+            if (col > 0 && !failed)
+                endLine();
+        }
+
+        private void endLine() {
+            if (blank) {
+                // skip empty lines, drop whatever whitespace we already counted for it
+                size -= col;
+            }
+            else {
+                // all rows must match the first one
+                if (rowLength == -1) {
+                    rowLength = col;
+                    if (growing)
+                        cells = Arrays.copyOf(cells, estimateCells(fileLength, rowLength, size));
+                }
+                else if (col != rowLength) {
+                    fail("All rows must be the same length. Line " + line
+                        + " has " + col + " characters, expected " + rowLength + ".");
+                    return;
+                }
+
+                if (badCol != -1) {
+                    String found = badByte < 0x80 ? "'" + (char) badByte + "'" : "non-ASCII character";
+                    fail("Invalid character found: " + found + " at ("
+                        + rows + ", " + badCol + "), line " + line + " column " + (badCol + 1));
+                    return;
+                }
+                rows++;
+            }
+
+            line++;
+            col = 0;
+            blank = true;
+            badCol = -1;
+        }
+
+        // a chunk can't give the right line number, it just remembers that something is wrong
+        private void fail(String message) {
+            if (!scanOnly)
+                throw new IllegalArgumentException(message);
+            failed = true;
+        }
+
+        // the parsed cells, trimmed to the tiles we actually read
+        byte[] cells() {
+            return size == cells.length ? cells : Arrays.copyOf(cells, size);
+        }
+    }
+
+    // number of tiles in a file where every row has rowLength tiles and one line break (with or without a trailing
+    // one), so a regular file fills the array exactly and doesn't need a last copy
+    private static int estimateCells(long fileLength, int rowLength, int size) {
+        long rows = (fileLength + 1) / (rowLength + 1);
+        return (int) Math.max(size, Math.min(Integer.MAX_VALUE - 8, rows * rowLength));
+    }
+
 }
\ No newline at end of file
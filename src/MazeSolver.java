@@ -1,37 +1,267 @@
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class MazeSolver {
 
-    // initialize our grid, counter and 2 end points and our ui (to call updateUI)
-    private Tile[][] maze;
+    // initialize our grid, counter and 2 end points (as cell ids) and our listener (the UI, to show the steps)
+    private MazeGrid maze;
     private Counter counter;
-    private Tile start;
-    private Tile end;
-    private MazeUI ui; 
-
-    public MazeSolver(Tile[][] maze) {
+    private int start;
+    private int end;
+    private SolverListener listener;
+
+    // how many tiles the last solve expanded (the counter also includes the +50/-50 tile effects)
+    private long expansions;
+
+    // set to false to stop the solver from printing its result messages (the batch runner does this)
+    private boolean verbose = true;
+
+    // the names accepted by solve(String), same as the method names
+    public static final String[] ALGORITHMS = {
+        "DFS", "BFS", "parallelBFS", "bidirectionalBFS", "AStar", "AStarBucket", "bidirectionalAStar",
+        "jumpPointSearch", "Dijkstra", "DijkstraBucket", "greedyBestFirst", "deadEndFill", "parallelDeadEndFill"
+    };
+
+    // dead ends of the last dead end fill (null if the last solve wasn't one), so the UI can read them back
+    private boolean[] deadEnds;
+
+    // visited flags and parent links for the current solve, the solvers never modify the grid
+    // so any number of them (each with its own context) can share one MazeGrid across threads,
+    // as long as nobody edits it with setWall at the same time
+    private SearchContext context;
+
+    // priority queues reused by the heap and bucket based searches (see clearedHeap and clearedBuckets)
+    private IndexedMinHeap heap;
+    private BucketQueue buckets;
+
+    // the FIFO queue of BFS and the dead end fills' search, see bfsQueue()
+    private int[] queue;
+
+    // the parallel BFS and its frontier arrays, created by the first parallelBFS and reused after that
+    private ParallelBFS parallelSearch;
+
+    // state of the backward half of the bidirectional searches (created the first time one of them runs)
+    // and the best meeting cell found so far
+    private SearchContext backward;
+    private IndexedMinHeap backwardHeap;
+    private int[] backwardQueue;
+    private int meeting;
+    private int meetingCost;
+
+    // marks the forward half of a bidirectional path while the halves are joined: a cell is on it if its stamp
+    // equals the current one, so clearing the marks is just another stamp (like SearchContext's epochs)
+    private int[] forwardHalf;
+    private int forwardHalfStamp;
+
+    // optional precomputed distances for solve(fromRow, fromCol, toRow, toCol), see DistanceIndex
+    private DistanceIndex index;
+
+    // picks the teleport targets from the free tiles (see TeleportTargets). with a seed every solve (after resetMaze)
+    // makes the same draws, so a maze with teleports gives the same result each time, needed to cache those results
+    // (see SolveCache)
+    private final Random random = new Random();
+    private long seed;
+    private boolean seeded;
+
+    public MazeSolver(MazeGrid maze) {
         this.maze = maze;
         this.counter = new Counter(0);
+        this.context = new SearchContext(maze);
+        if (maze.getTeleportCount() > 0)
+            context.setTeleportTargets(new TeleportTargets(maze));
         locateStartAndEnd();
     }
+
+    // kept for code that still builds a Tile[][], the tiles are packed into a grid and not used after that
+    public MazeSolver(Tile[][] maze) {
+        this(MazeGrid.fromTiles(maze));
+    }
     
-    // method to set UI reference for updates
-    public void setUI(MazeUI ui) {
-        this.ui = ui;
+    // gets every visited cell, dead end and step of the following solves (null for none), see SolverListener
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+        context.setListener(listener);
+        if (backward != null)
+            backward.setListener(listener);
     }
 
-    // this method locates our start point and end point by iterating over each tile 
-    private void locateStartAndEnd() {
-        for (Tile[] row : maze) {
-            for (Tile tile : row) {
-                if (tile.isStart()) 
-                    start = tile;
-                
-                if (tile.isEnd())
-                    end = tile;
+    // tells the listener that one step is done
+    private void step() {
+        if (listener != null)
+            listener.step(counter.value);
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.seeded = true;
+        random.setSeed(seed);
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    private void log(String message) {
+        if (verbose)
+            System.out.println(message);
+    }
+
+    // runs an algorithm by name (one of ALGORITHMS), so callers without a UI don't need their own dispatch
+    public boolean solve(String algorithm) {
+        switch (algorithm) {
+            case "DFS": return DFS();
+            case "BFS": return BFS();
+            case "parallelBFS": return parallelBFS();
+            case "bidirectionalBFS": return bidirectionalBFS();
+            case "AStar": return AStar();
+            case "AStarBucket": return AStarBucket();
+            case "bidirectionalAStar": return bidirectionalAStar();
+            case "jumpPointSearch": return jumpPointSearch();
+            case "Dijkstra": return Dijkstra();
+            case "DijkstraBucket": return DijkstraBucket();
+            case "greedyBestFirst": return greedyBestFirst();
+            case "deadEndFill": return deadEndFill();
+            case "parallelDeadEndFill": return parallelDeadEndFill();
+            default:
+                throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+    }
+
+    // the index used by point to point queries, null to go back to the Manhattan heuristic
+    public void setDistanceIndex(DistanceIndex index) {
+        if (index != null && index.getMaze() != maze) {
+            throw new IllegalArgumentException("The index was built for a different maze.");
+        }
+        if (index != null && !index.isCurrent()) {
+            throw new IllegalArgumentException("The index is out of date, the maze was edited after it was built.");
+        }
+        this.index = index;
+    }
+
+    // shortest path between any two open tiles (not just A and B), for answering many queries on one maze.
+    // with an exact index the path is read straight from the table, otherwise it's A* using the landmark bound
+    // of the index (or the Manhattan distance without one) as heuristic. the special tiles are plain floor here,
+    // a teleport has no fixed target so no index could store its distance. afterwards the path is available
+    // through reconstructPath(getMaze().tileAt(toRow, toCol)) like for the other algorithms
+    public boolean solve(int fromRow, int fromCol, int toRow, int toCol) {
+        int from = openCell(fromRow, fromCol);
+        int to = openCell(toRow, toCol);
+        // the maze can be edited after the index was set
+        if (index != null && !index.isCurrent()) {
+            throw new IllegalStateException("The index is out of date, the maze was edited after it was built.");
+        }
+        resetMaze();
+
+        if (index != null && index.isExact())
+            return followIndex(from, to);
+
+        if (queryBound(from, to) == DistanceIndex.UNREACHABLE) {
+            log("No path found.");
+            return false;
+        }
+
+        CellQueue openSet = clearedHeap();
+        context.markVisited(from);
+        context.setDistance(from, 0);
+        openSet.insertOrDecrease(from, queryBound(from, to));
+
+        while (!openSet.isEmpty()) {
+            int current = openSet.pop();
+
+            counter.value++;
+            expansions++;
+            step();
+
+            if (current == to) {
+                log("Reached the end! Final counter: " + counter.value);
+                return true;
+            }
+
+            int open = maze.openDirections(current);
+            for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                if ((open & (1 << d)) == 0) continue;
+                int neighbor = maze.neighbor(current, d);
+                if (isClosed(neighbor, openSet)) continue;
+
+                int tentativeGScore = context.getDistance(current) + 1;
+                if (tentativeGScore < context.getDistance(neighbor)) {
+                    int bound = queryBound(neighbor, to);
+                    // the index knows this tile can't reach the target
+                    if (bound == DistanceIndex.UNREACHABLE) continue;
+
+                    context.markVisited(neighbor);
+                    context.setParent(neighbor, current);
+                    context.setDistance(neighbor, tentativeGScore);
+                    openSet.insertOrDecrease(neighbor, tentativeGScore + bound);
+                }
+            }
+        }
+
+        log("No path found.");
+        return false;
+    }
+
+    private int openCell(int row, int col) {
+        if (!maze.inBounds(row, col) || maze.isWall(maze.index(row, col))) {
+            throw new IllegalArgumentException("(" + row + ", " + col + ") is not an open tile.");
+        }
+        return maze.index(row, col);
+    }
+
+    private int queryBound(int cell, int to) {
+        return index != null ? index.lowerBound(cell, to) : heuristic(cell, to);
+    }
+
+    // walks from the start of the query to its target, always to a neighbor one step closer according to the
+    // exact table, and records the parents so reconstructPath works as usual
+    private boolean followIndex(int from, int to) {
+        int remaining = index.distance(from, to);
+        if (remaining == DistanceIndex.UNREACHABLE) {
+            log("No path found.");
+            return false;
+        }
+
+        context.markVisited(from);
+        int current = from;
+        while (current != to) {
+            int open = maze.openDirections(current);
+            int next = -1;
+            for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                if ((open & (1 << d)) == 0) continue;
+                int neighbor = maze.neighbor(current, d);
+                if (index.distance(neighbor, to) == remaining - 1) {
+                    next = neighbor;
+                    break;
+                }
+            }
+            // a table that fits the maze always has a neighbor one step closer, without one we would never get there
+            if (next == -1) {
+                throw new IllegalStateException("The index doesn't match the maze at (" + maze.rowOf(current) + ", " + maze.colOf(current) + ").");
             }
+            context.markVisited(next);
+            context.setParent(next, current);
+            current = next;
+            remaining--;
+            counter.value++;
+            expansions++;
         }
-        if (start == null || end == null) {
+        log("Reached the end! Final counter: " + counter.value);
+        return true;
+    }
+
+    // this method takes our start point and end point from the grid (it already located them while loading)
+    private void locateStartAndEnd() {
+        start = maze.getStart();
+        end = maze.getEnd();
+        if (start == -1 || end == -1) {
             throw new IllegalStateException("Start or End tile not found.");
         }
     }
@@ -42,83 +272,100 @@ public class MazeSolver {
         resetMaze();
         
         // initially just mark the starting tile as visited
-        start.setVisited(true);
+        context.markVisited(start);
         counter.value++;
+        expansions++;
         
         // update UI 
-        if (ui != null) {
-            ui.updateCounter(counter.value);
-            ui.updateUI();
-        }
+        step();
         
-        // then we call the recursive function 
         return dfs(start);
     }
-    
-    private boolean dfs(Tile current) {
-    	
-        // Check if we reached the end
-        if (current.isEnd()) {
-            System.out.println("Reached the end! Final counter: " + counter.value);
-            if (ui != null) {
-                ui.updateCounter(counter.value);
-                ui.updateUI();
-            }
-            return true;
-        }
-        
-        // Apply special effects
-        Tile next = current.applySpecialEffect(counter, maze);
-        
-        // Handle teleportation. first we check that the current tile is not the previous tile before teleporting 
-        if (next != current) {
-        	// then we check if the current tile has been visited before (we already made sure to teleport to a non visited tile but this is just to make sure)
-            if (!next.isVisited()) {
-            	// if this is a new tile, set it to visited before, save parent for backtracking and update counter and UI
-                next.setVisited(true);
-                next.setParent(current);
-                counter.value++;
-                
-                if (ui != null) {
-                    ui.updateCounter(counter.value);
-                    ui.updateUI();
-                }
-                
-                // recursively explore from teleported location
-                if (dfs(next)) {
+
+    // done with our own stack instead of recursion, one frame per tile on the current path would overflow the thread
+    // stack in long corridors. the stack holds the cell ids and for each one the next direction to try (or FRESH
+    // before it's entered, DONE once there is nothing left). tiles are entered and their neighbors tried in the same
+    // order as a recursive DFS, exploring each neighbor completely before trying the next one
+    private static final byte FRESH = -1;
+    private static final byte DONE = MazeGrid.DIRECTIONS;
+
+    private boolean dfs(int first) {
+        // every tile is pushed at most once (it's marked visited first), the stack grows as the path gets longer
+        int[] stack = new int[Math.min(maze.size(), 1024)];
+        byte[] cursor = new byte[stack.length];
+        int depth = 0;
+        stack[depth] = first;
+        cursor[depth++] = FRESH;
+
+        while (depth > 0) {
+            int current = stack[depth - 1];
+            int d = cursor[depth - 1];
+            int child = -1;
+
+            if (d == FRESH) {
+                // Check if we reached the end
+                if (maze.isEnd(current)) {
+                    log("Reached the end! Final counter: " + counter.value);
+                    step();
                     return true;
                 }
+
+                // Apply special effects
+                int next = applySpecialEffect(current);
+
+                // Handle teleportation, a teleport only leads to its target, never to its own neighbors.
+                // we already made sure to teleport to a non visited tile but this is just to make sure
+                if (next != current) {
+                    cursor[depth - 1] = DONE;
+                    if (next == -1 || context.isVisited(next))
+                        continue;
+                    child = next;
+                } else {
+                    d = 0;
+                }
             }
-            return false;
-        }
-        
-        // Get all available neighbors 
-        List<Tile> neighbors = current.getValidNeighbors(maze);
-        
-        // iterate over each neighbor and for each neighbor we will call the dfs function again to explore that entire neighbor and the full path before moving to the next neighbor 
-        // for example if the first neighbor is left then we will take that left and explore all its neighbor and take the left's left and then the left's left's left etc until we finish the entire path for that left neighbor
-        for (Tile neighbor : neighbors) {
-        	// if they had not been visited before then 
-            if (!neighbor.isVisited()) {
-                neighbor.setVisited(true);
-                neighbor.setParent(current);
-                counter.value++;
-                
-                if (ui != null) {
-                    ui.updateCounter(counter.value);
-                    ui.updateUI();
+
+            if (child == -1) {
+                // the next neighbor that hasn't been visited yet (the ones before it were explored completely meanwhile)
+                int open = maze.openDirections(current);
+                while (d < MazeGrid.DIRECTIONS && ((open & (1 << d)) == 0 || context.isVisited(maze.neighbor(current, d)))) {
+                    d++;
                 }
-                
-                // Recursively explore this neighbor completely before trying the next one
-                if (dfs(neighbor)) {
-                    return true;
+                if (d == MazeGrid.DIRECTIONS) {
+                    depth--; // nothing left here, back to the tile we came from
+                    continue;
                 }
+                cursor[depth - 1] = (byte) (d + 1);
+                child = maze.neighbor(current, d);
+            }
+
+            // explore the child completely before trying the next neighbor
+            visitFromDfs(child, current);
+            if (depth == stack.length) {
+                stack = Arrays.copyOf(stack, growTo(depth));
+                cursor = Arrays.copyOf(cursor, stack.length);
             }
+            stack[depth] = child;
+            cursor[depth++] = FRESH;
         }
-        
-        return false; // if we reach this point then there is no path found 
+
+        return false; // if we reach this point then there is no path found
     }
 
+    // marks the tile, saves its parent for backtracking and updates the counter and the UI
+    private void visitFromDfs(int cell, int parentCell) {
+        context.markVisited(cell);
+        context.setParent(cell, parentCell);
+        counter.value++;
+        expansions++;
+
+        step();
+    }
+
+    // doubles the stack, but never past the number of tiles
+    private int growTo(int length) {
+        return (int) Math.min(maze.size(), 2L * length);
+    }
     
     // Breadth-First search algorithm
     public boolean BFS() {
@@ -126,145 +373,425 @@ public class MazeSolver {
         resetMaze();
         
         // BFS implements a queue frontier to load the last element first to ensure we go through all neighboring tiles before going to a deeper level 
-        Queue<Tile> queue = new LinkedList<>();
+        int[] queue = bfsQueue();
+        int head = 0;
+        int tail = 0;
         // load the start tile to the Queue and mark it as visited
-        queue.offer(start);
-        start.setVisited(true);
+        queue[tail++] = start;
+        context.markVisited(start);
 
         // loop over and over until the Queue is empty
-        while (!queue.isEmpty()) {
+        while (head < tail) {
         	
         	// first we pull the last element 
-            Tile current = queue.poll();
+            int current = queue[head++];
             
             // update counter and UI
             counter.value++;
-            if (ui != null) {
-                ui.updateCounter(counter.value);
-                ui.updateUI();
-            }
+            expansions++;
+            step();
             
             // Check if we reached the end
-            if (current.isEnd()) {
-                System.out.println("Reached the end! Final counter: " + counter.value);
-                if (ui != null) {
-                    ui.updateCounter(counter.value);
-                    ui.updateUI();
-                }
+            if (maze.isEnd(current)) {
+                log("Reached the end! Final counter: " + counter.value);
+                step();
                 return true;
             }
             
             // Apply special effects
-            Tile next = current.applySpecialEffect(counter, maze);
+            int next = applySpecialEffect(current);
 
             // teleportation logic, first we check that the tile we teleported to is not the same as what we teleported from 
             if (next != current) {
             	// then we check that the tile we teleported to was not visited before. 
             	// these checks are already implemented in the teleportation logic itself but we did it again to avoid any edge cases
-                if (!next.isVisited()) {
+                if (next != -1 && !context.isVisited(next)) {
                 	//if everything is okay then we mark the current node as visited and load it to the Queue 
-                    next.setVisited(true);
-                    next.setParent(current);
-                    queue.offer(next);
+                    context.markVisited(next);
+                    context.setParent(next, current);
+                    queue[tail++] = next;
                 }
                 continue;
             }
 
             // add all unvisited neighbors to queue
-            for (Tile neighbor : current.getValidNeighbors(maze)) {
-                if (!neighbor.isVisited()) {
-                    neighbor.setVisited(true);
-                    neighbor.setParent(current);
-                    queue.offer(neighbor);
+            int open = maze.openDirections(current);
+            for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                if ((open & (1 << d)) == 0) continue;
+                int neighbor = maze.neighbor(current, d);
+                if (!context.isVisited(neighbor)) {
+                    context.markVisited(neighbor);
+                    context.setParent(neighbor, current);
+                    queue[tail++] = neighbor;
                 }
             }
         }
 
-        System.out.println("No path found.");
+        log("No path found.");
         return false;
     }
     
-    // A* search algorithm 
-    public boolean AStar() {
-        // Before we start, we reset the maze to clear visited flags, parent references, and counters
+    // Parallel BFS on all cores (the common ForkJoinPool), finds a path of the same length as BFS()
+    public boolean parallelBFS() {
+        return parallelBFS(ForkJoinPool.commonPool());
+    }
+
+    // Parallel BFS on a pool of the given size, mostly for measuring how it scales with the number of threads
+    public boolean parallelBFS(int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return parallelBFS(pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // each level of the BFS is split between the pool's workers (see ParallelBFS), so the UI is only
+    // updated once per level instead of once per tile
+    private boolean parallelBFS(ForkJoinPool pool) {
+        // reset the maze before starting
         resetMaze();
 
-        // Creates a priority queue that sorts tiles by their total estimated cost (fScore),
-        // ensuring that the most promising (cheapest) path is explored first
-        PriorityQueue<AStarNode> openSet = new PriorityQueue<>((a, b) -> Double.compare(a.fScore, b.fScore));
+        // the workers mark tiles visited at the same time and pick their own teleport targets,
+        // so the teleport targets (which only one thread may update) are left alone during this solve
+        // the same goes for the listener, it gets the cells of each level from this thread once the level is done
+        TeleportTargets teleportTargets = context.getTeleportTargets();
+        context.setTeleportTargets(null);
+        context.setListener(null);
+        if (parallelSearch == null) {
+            parallelSearch = new ParallelBFS(maze, context);
+        }
+        ParallelBFS search = parallelSearch;
+        boolean found;
+        try {
+            if (listener != null)
+                listener.visited(start);
+            found = search.run(pool, start, end, delta -> {
+                counter.value += delta;
+                if (listener != null) {
+                    for (int i = 0; i < search.getFrontierSize(); i++) {
+                        listener.visited(search.getFrontierCell(i));
+                    }
+                }
+                step();
+            });
+        } finally {
+            context.setTeleportTargets(teleportTargets);
+            context.setListener(listener);
+        }
 
-        // The closedSet keeps track of tiles that have already been fully processed
-        Set<Tile> closedSet = new HashSet<>();
+        expansions = search.getExpanded();
+        if (found) {
+            log("Reached the end! Final counter: " + counter.value);
+        } else {
+            log("No path found.");
+        }
+        return found;
+    }
 
-        // gScore stores the cheapest known cost from the start tile to each tile
-        Map<Tile, Double> gScore = new HashMap<>();
+    // Bidirectional BFS, one BFS from the start and one from the end, each expanding a whole level at a time
+    // (always the side with the smaller frontier) until they touch. two searches of radius d/2 explore far less
+    // than one of radius d on big mazes.
+    // teleports are one way and random, so only the forward search takes them: the backward search treats
+    // teleport tiles as walls (we can't know which cell a teleport would have sent us to)
+    public boolean bidirectionalBFS() {
+        // Reset the maze before starting (this also resets the backward search state)
+        resetMaze();
+        SearchContext backward = backwardContext();
 
-        // fScore stores the estimated total cost from start to goal through each tile
-        // (fScore = gScore + heuristic estimate to the goal)
-        Map<Tile, Double> fScore = new HashMap<>();
+        // one queue per side, each cell is queued at most once per side so the arrays never overflow.
+        // the forward side uses the BFS queue, both are kept for the next solve
+        int[] forwardQueue = bfsQueue();
+        if (this.backwardQueue == null) {
+            this.backwardQueue = new int[maze.size()];
+        }
+        int[] backwardQueue = this.backwardQueue;
+        int forwardHead = 0, forwardTail = 0;
+        int backwardHead = 0, backwardTail = 0;
+
+        context.markVisited(start);
+        context.setDistance(start, 0);
+        forwardQueue[forwardTail++] = start;
+        backward.markVisited(end);
+        backward.setDistance(end, 0);
+        backwardQueue[backwardTail++] = end;
+
+        meeting = -1;
+        meetingCost = SearchContext.UNSEEN;
+
+        // loop until one side runs out of cells or the two searches met
+        while (forwardHead < forwardTail && backwardHead < backwardTail && meeting == -1) {
+            boolean forwardTurn = forwardTail - forwardHead <= backwardTail - backwardHead;
+
+            // expand exactly one level of the chosen side, so every meeting found in this level is checked
+            // and we keep the shortest one
+            int levelEnd = forwardTurn ? forwardTail : backwardTail;
+            while ((forwardTurn ? forwardHead : backwardHead) < levelEnd) {
+                int current = forwardTurn ? forwardQueue[forwardHead++] : backwardQueue[backwardHead++];
+
+                // update counter and UI
+                counter.value++;
+                expansions++;
+                step();
+
+                // Apply special effects (the backward side never stands on a teleport, so it only gets counter effects)
+                int next = applySpecialEffect(current);
+
+                if (forwardTurn) {
+                    // teleporting counts as one step, like in BFS
+                    if (next != current) {
+                        if (next != -1 && !context.isVisited(next)) {
+                            context.markVisited(next);
+                            context.setParent(next, current);
+                            context.setDistance(next, context.getDistance(current) + 1);
+                            forwardQueue[forwardTail++] = next;
+                            checkMeeting(next, backward);
+                        }
+                        continue;
+                    }
+                }
 
-        // Initialize the starting tile with gScore = 0 and fScore = heuristic to goal
-        AStarNode startNode = new AStarNode(start, 0, heuristic(start, end));
+                int open = maze.openDirections(current);
+                for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                    if ((open & (1 << d)) == 0) continue;
+                    int neighbor = maze.neighbor(current, d);
+
+                    if (forwardTurn) {
+                        if (context.isVisited(neighbor)) continue;
+                        context.markVisited(neighbor);
+                        context.setParent(neighbor, current);
+                        context.setDistance(neighbor, context.getDistance(current) + 1);
+                        forwardQueue[forwardTail++] = neighbor;
+                    } else {
+                        // stepping backward into a teleport tile would mean walking out of it, which teleports don't allow
+                        if (backward.isVisited(neighbor) || maze.getCell(neighbor) == MazeGrid.TELEPORT) continue;
+                        backward.markVisited(neighbor);
+                        backward.setParent(neighbor, current);
+                        backward.setDistance(neighbor, backward.getDistance(current) + 1);
+                        backwardQueue[backwardTail++] = neighbor;
+                    }
+                    checkMeeting(neighbor, backward);
+                }
+            }
+        }
 
-        // Add the start tile to the priority queue and initialize its scores
-        openSet.offer(startNode);
-        gScore.put(start, 0.0);
-        fScore.put(start, heuristic(start, end));
-        start.setVisited(true);
+        return finishBidirectional(backward);
+    }
 
-        // Main loop: continue exploring while there are still nodes in the open set
-        while (!openSet.isEmpty()) {
+    // Bidirectional A*, one A* from the start towards the end and one from the end towards the start, always
+    // expanding the side with fewer open tiles. every tile reached by both sides is a possible meeting point,
+    // and we can stop once neither side's best fScore can beat the best meeting found so far.
+    // teleports are handled like in bidirectionalBFS (forward only, walls for the backward side), and since they
+    // break the heuristic the path is only guaranteed to be the shortest when no teleport is used
+    public boolean bidirectionalAStar() {
+        // Reset the maze before starting (this also resets the backward search state)
+        resetMaze();
+        SearchContext backward = backwardContext();
 
-            // Remove the tile with the lowest estimated cost from the queue
-            AStarNode currentNode = openSet.poll();
-            Tile current = currentNode.tile;
+        IndexedMinHeap forwardOpen = clearedHeap();
+        IndexedMinHeap backwardOpen = clearedBackwardHeap();
 
-            // Skip this tile if we've already processed it
-            if (closedSet.contains(current)) continue;
+        context.markVisited(start);
+        context.setDistance(start, 0);
+        forwardOpen.insertOrDecrease(start, heuristic(start, end));
+        backward.markVisited(end);
+        backward.setDistance(end, 0);
+        backwardOpen.insertOrDecrease(end, heuristic(end, start));
 
-            // Mark the current tile as processed
-            closedSet.add(current);
+        meeting = -1;
+        meetingCost = SearchContext.UNSEEN;
 
-            // Update step counter and UI (if available)
+        while (!forwardOpen.isEmpty() && !backwardOpen.isEmpty()) {
+
+            // the lowest fScore of each side is a lower bound for any path still hidden on that side
+            if (meeting != -1 && Math.max(forwardOpen.peekKey(), backwardOpen.peekKey()) >= meetingCost) break;
+
+            boolean forwardTurn = forwardOpen.size() <= backwardOpen.size();
+            SearchContext side = forwardTurn ? context : backward;
+            IndexedMinHeap openSet = forwardTurn ? forwardOpen : backwardOpen;
+            int target = forwardTurn ? end : start;
+            int current = openSet.pop();
+
+            // Update step counter and UI
             counter.value++;
-            if (ui != null) {
-                ui.updateCounter(counter.value);
-                ui.updateUI();
+            expansions++;
+            step();
+
+            // Apply special effects (again only the forward side can be standing on a teleport)
+            int next = applySpecialEffect(current);
+            if (next != current) {
+                if (next != -1)
+                    relaxBidirectional(context, forwardOpen, current, next, end, backward);
+                continue;
+            }
+
+            int open = maze.openDirections(current);
+            for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                if ((open & (1 << d)) == 0) continue;
+                int neighbor = maze.neighbor(current, d);
+
+                if (!forwardTurn && maze.getCell(neighbor) == MazeGrid.TELEPORT) continue;
+                if (side.isVisited(neighbor) && !openSet.contains(neighbor)) continue;
+
+                relaxBidirectional(side, openSet, current, neighbor, target, backward);
+            }
+        }
+
+        return finishBidirectional(backward);
+    }
+
+    // the A* relaxation for one side of bidirectional A*, plus the meeting check
+    private void relaxBidirectional(SearchContext side, IndexedMinHeap openSet, int from, int to, int target, SearchContext backward) {
+        int tentativeGScore = side.getDistance(from) + 1;
+        if (tentativeGScore < side.getDistance(to)) {
+            side.markVisited(to);
+            side.setParent(to, from);
+            side.setDistance(to, tentativeGScore);
+            openSet.insertOrDecrease(to, tentativeGScore + heuristic(to, target));
+            checkMeeting(to, backward);
+        }
+    }
+
+    // if both searches reached this cell, the start -> cell -> end path through it may be the best one so far
+    private void checkMeeting(int cell, SearchContext backward) {
+        if (context.isVisited(cell) && backward.isVisited(cell)) {
+            int cost = context.getDistance(cell) + backward.getDistance(cell);
+            if (cost < meetingCost) {
+                meetingCost = cost;
+                meeting = cell;
             }
+        }
+    }
+
+    // joins the two halves at the meeting cell so reconstructPath can follow parents from the end to the start:
+    // the backward parents (which point towards the end) are copied into the forward context in reverse
+    private boolean finishBidirectional(SearchContext backward) {
+        if (meeting == -1) {
+            log("No path found.");
+            return false;
+        }
+
+        // if the backward half runs into the forward half (only possible after a teleport detour) we join the
+        // halves at the last shared cell instead, so the parent chain can never loop
+        int stamp = nextForwardHalfStamp();
+        for (int cell = meeting; cell != -1; cell = context.getParent(cell)) {
+            forwardHalf[cell] = stamp;
+        }
+        int join = meeting;
+        for (int cell = backward.getParent(meeting); cell != -1; cell = backward.getParent(cell)) {
+            if (forwardHalf[cell] == stamp)
+                join = cell;
+        }
+
+        int previous = join;
+        for (int cell = backward.getParent(join); cell != -1; cell = backward.getParent(cell)) {
+            context.markVisited(cell);
+            context.setParent(cell, previous);
+            previous = cell;
+        }
+
+        log("Reached the end! Final counter: " + counter.value);
+        step();
+        return true;
+    }
+
+    // a stamp no cell of forwardHalf has yet (the array is wiped once every ~2 billion joins when they wrap around)
+    private int nextForwardHalfStamp() {
+        if (forwardHalf == null) {
+            forwardHalf = new int[maze.size()];
+        }
+        if (++forwardHalfStamp == Integer.MAX_VALUE) {
+            Arrays.fill(forwardHalf, 0);
+            forwardHalfStamp = 1;
+        }
+        return forwardHalfStamp;
+    }
+
+    // the second search state used by the backward half of the bidirectional searches
+    private SearchContext backwardContext() {
+        if (backward == null) {
+            backward = new SearchContext(maze);
+            backward.setListener(listener);
+        }
+        return backward;
+    }
+
+    // the backward half's own priority queue, reused like clearedHeap
+    private IndexedMinHeap clearedBackwardHeap() {
+        if (backwardHeap == null) {
+            backwardHeap = new IndexedMinHeap(maze.size());
+        }
+        backwardHeap.clear();
+        return backwardHeap;
+    }
+    
+    // A* search algorithm 
+    public boolean AStar() {
+        return aStar(clearedHeap());
+    }
+
+    // A* search on a bucket queue, every step costs 1 so fScores are small integers and we can use one bucket
+    // per fScore instead of a heap. without teleports the open set only ever holds two fScores (f and f + 2)
+    public boolean AStarBucket() {
+        return aStar(clearedBuckets());
+    }
+
+    // the A* search itself, openSet is an empty queue of cell ids sorted by their total estimated cost (fScore),
+    // ensuring that the most promising (cheapest) path is explored first.
+    // each tile is queued at most once, finding a cheaper path just lowers its key
+    private boolean aStar(CellQueue openSet) {
+        // Before we start, we reset the maze to clear visited flags, parent references, and counters
+        resetMaze();
+
+        // gScore (the cheapest known cost from the start tile to each tile) is kept in the context's distance array,
+        // fScore = gScore + heuristic estimate to the goal is only needed as the queue key so we don't store it
+
+        // Add the start tile to the priority queue and initialize its scores (gScore = 0, fScore = heuristic to goal)
+        context.markVisited(start);
+        context.setDistance(start, 0);
+        openSet.insertOrDecrease(start, heuristic(start, end));
+
+        // Main loop: continue exploring while there are still nodes in the open set
+        while (!openSet.isEmpty()) {
+
+            // Remove the tile with the lowest estimated cost from the queue,
+            // there are no duplicates in the queue so every tile we get here is processed exactly once
+            int current = openSet.pop();
+
+            // Update step counter and UI (if available)
+            counter.value++;
+            expansions++;
+            step();
 
             // Check if we have reached the goal tile
-            if (current.isEnd()) {
-                System.out.println("Reached the end! Final counter: " + counter.value);
-                if (ui != null) {
-                    ui.updateCounter(counter.value);
-                    ui.updateUI();
-                }
+            if (maze.isEnd(current)) {
+                log("Reached the end! Final counter: " + counter.value);
+                step();
                 return true;
             }
 
             // Apply special effects like teleportation if the tile supports it
-            Tile next = current.applySpecialEffect(counter, maze);
+            int next = applySpecialEffect(current);
 
             // Handle teleportation: if we teleported to a new tile, process it
             if (next != current) {
-                if (!closedSet.contains(next)) {
+                if (next != -1 && !isClosed(next, openSet)) {
 
                     // Calculate the new cost to reach the teleported tile
-                    double tentativeGScore = gScore.get(current) + 1;
+                    int tentativeGScore = context.getDistance(current) + 1;
 
-                    // If this path is better than any previous path to the tile (or first time visiting it)
-                    if (!gScore.containsKey(next) || tentativeGScore < gScore.get(next)) {
-                        // Update the tile's parent to allow path reconstruction later
-                        next.setParent(current);
+                    // If this path is better than any previous path to the tile (or first time visiting it, UNSEEN is the max int)
+                    if (tentativeGScore < context.getDistance(next)) {
+                        // Mark the tile as visited and update its parent to allow path reconstruction later
+                        context.markVisited(next);
+                        context.setParent(next, current);
 
                         // Store the new gScore and calculate fScore
-                        gScore.put(next, tentativeGScore);
-                        double fScoreValue = tentativeGScore + heuristic(next, end);
-                        fScore.put(next, fScoreValue);
+                        context.setDistance(next, tentativeGScore);
+                        int fScoreValue = tentativeGScore + heuristic(next, end);
 
-                        // Mark the tile as visited and add it to the open set
-                        next.setVisited(true);
-                        openSet.offer(new AStarNode(next, tentativeGScore, fScoreValue));
+                        // Add it to the open set, or lower its key if it's already there
+                        openSet.insertOrDecrease(next, fScoreValue);
                     }
                 }
                 // After teleportation, we skip neighbor exploration of the original tile
@@ -272,256 +799,380 @@ public class MazeSolver {
             }
 
             // Explore all valid neighbors of the current tile
-            for (Tile neighbor : current.getValidNeighbors(maze)) {
+            int open = maze.openDirections(current);
+            for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                if ((open & (1 << d)) == 0) continue;
+                int neighbor = maze.neighbor(current, d);
+
                 // Skip if the neighbor has already been processed
-                if (closedSet.contains(neighbor)) continue;
+                if (isClosed(neighbor, openSet)) continue;
 
                 // Calculate the tentative gScore from start to this neighbor via the current tile
-                double tentativeGScore = gScore.get(current) + 1;
+                int tentativeGScore = context.getDistance(current) + 1;
 
                 // If this path to the neighbor is better than any previous path
-                if (!gScore.containsKey(neighbor) || tentativeGScore < gScore.get(neighbor)) {
-                    // Update the parent to enable path reconstruction
-                    neighbor.setParent(current);
-
-                    // Store the gScore and fScore for the neighbor
-                    gScore.put(neighbor, tentativeGScore);
-                    double fScoreValue = tentativeGScore + heuristic(neighbor, end);
-                    fScore.put(neighbor, fScoreValue);
-
-                    // Mark the neighbor as visited and add it to the priority queue
-                    neighbor.setVisited(true);
-                    openSet.offer(new AStarNode(neighbor, tentativeGScore, fScoreValue));
+                if (tentativeGScore < context.getDistance(neighbor)) {
+                    // Mark the neighbor as visited and update the parent to enable path reconstruction
+                    context.markVisited(neighbor);
+                    context.setParent(neighbor, current);
+
+                    // Store the gScore for the neighbor and calculate its fScore
+                    context.setDistance(neighbor, tentativeGScore);
+                    int fScoreValue = tentativeGScore + heuristic(neighbor, end);
+
+                    // Add it to the priority queue, or lower its key if it's already there
+                    openSet.insertOrDecrease(neighbor, fScoreValue);
                 }
             }
         }
 
         // If we exit the loop, it means no path to the goal was found
-        System.out.println("No path found.");
+        log("No path found.");
         return false;
     }
 
     
-    // Helper class to store data used in A* comparison and sorting
-    private static class AStarNode {
-        Tile tile;        // The tile represented by this node
-        double gScore;    // Cost from the start to this tile
-        double fScore;    // Estimated total cost from start to goal through this tile
+    // Heuristic function for A* (Manhattan distance)
+    private int heuristic(int a, int b) {
+        return Math.abs(maze.rowOf(a) - maze.rowOf(b)) + Math.abs(maze.colOf(a) - maze.colOf(b));
+    }
+    
+    
+    // Jump Point Search, A* that skips over the cells in the middle of straight open runs.
+    // instead of pushing all 4 neighbors we only "jump" in the useful directions until we hit a cell where
+    // something interesting happens (a jump point): the goal, a side opening that wasn't there on the previous cell,
+    // or a special tile (teleport, counter up/down) which always has to be stopped on so its effect gets applied.
+    // on big open rooms this expands a tiny fraction of what A* does, and the path is just as short
+    public boolean jumpPointSearch() {
+        // Reset the maze before starting (visited flags, parents, counter)
+        resetMaze();
+
+        // same queue as A*, sorted by fScore = gScore + Manhattan distance to the goal
+        CellQueue openSet = clearedHeap();
+
+        context.markVisited(start);
+        context.setDistance(start, 0);
+        openSet.insertOrDecrease(start, heuristic(start, end));
+
+        while (!openSet.isEmpty()) {
+
+            // take the jump point with the lowest fScore
+            int current = openSet.pop();
+
+            // Update step counter and UI
+            counter.value++;
+            expansions++;
+            step();
+
+            // Check if we have reached the goal tile
+            if (maze.isEnd(current)) {
+                log("Reached the end! Final counter: " + counter.value);
+                step();
+                return true;
+            }
 
-        AStarNode(Tile tile, double gScore, double fScore) {
-            this.tile = tile;
-            this.gScore = gScore;
-            this.fScore = fScore;
+            // Apply special effects, a teleport moves us one step to a random cell like in the other algorithms
+            int next = applySpecialEffect(current);
+            if (next != current) {
+                if (next != -1 && !isClosed(next, openSet)) {
+                    addJumpPoint(openSet, current, next, context.getDistance(current) + 1);
+                }
+                continue;
+            }
+
+            // jump in every direction that can still lead somewhere new
+            int directions = prunedDirections(current);
+            for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                if ((directions & (1 << d)) == 0) continue;
+
+                int jumpPoint = jump(current, d);
+                if (jumpPoint == -1 || isClosed(jumpPoint, openSet)) continue;
+
+                // jump points are on a straight line, so the cost is just the distance between them
+                addJumpPoint(openSet, current, jumpPoint, context.getDistance(current) + heuristic(current, jumpPoint));
+            }
         }
+
+        // If we exit the loop, it means no path to the goal was found
+        log("No path found.");
+        return false;
     }
 
-    
-    // Heuristic function for A* (Manhattan distance)
-    private double heuristic(Tile a, Tile b) {
-        return Math.abs(a.getRow() - b.getRow()) + Math.abs(a.getCol() - b.getCol());
+    // records a cheaper way to reach a jump point, same relaxation as A*
+    private void addJumpPoint(CellQueue openSet, int from, int jumpPoint, int tentativeGScore) {
+        if (tentativeGScore < context.getDistance(jumpPoint)) {
+            context.markVisited(jumpPoint);
+            context.setParent(jumpPoint, from);
+            context.setDistance(jumpPoint, tentativeGScore);
+            openSet.insertOrDecrease(jumpPoint, tentativeGScore + heuristic(jumpPoint, end));
+        }
     }
-    
-    
+
+    // the directions worth jumping in from this cell. if we arrived moving horizontally we keep going forward
+    // and try up and down (and the other way around for vertical moves), going back is never useful.
+    // the start and cells we teleported to have no travel direction so they try everything, special tiles
+    // (counters) try everything except going back over the cells we just jumped across
+    private int prunedDirections(int cell) {
+        int open = maze.openDirections(cell);
+        int parentCell = context.getParent(cell);
+        if (parentCell == -1 || maze.getCell(parentCell) == MazeGrid.TELEPORT) {
+            return open;
+        }
+
+        int forward;
+        int back;
+        int sides;
+        if (maze.rowOf(parentCell) == maze.rowOf(cell)) {
+            forward = parentCell < cell ? MazeGrid.RIGHT : MazeGrid.LEFT;
+            back = parentCell < cell ? MazeGrid.LEFT : MazeGrid.RIGHT;
+            sides = (1 << MazeGrid.UP) | (1 << MazeGrid.DOWN);
+        } else {
+            forward = parentCell < cell ? MazeGrid.DOWN : MazeGrid.UP;
+            back = parentCell < cell ? MazeGrid.UP : MazeGrid.DOWN;
+            sides = (1 << MazeGrid.LEFT) | (1 << MazeGrid.RIGHT);
+        }
+        if (maze.getCell(cell) != MazeGrid.EMPTY) {
+            return open & ~(1 << back);
+        }
+        return open & (sides | (1 << forward));
+    }
+
+    // walks from cell in direction d until it finds a jump point (returns its cell id) or a wall (returns -1).
+    // done with a loop instead of recursion so long corridors can't overflow the stack
+    private int jump(int cell, int d) {
+        boolean horizontal = d == MazeGrid.LEFT || d == MazeGrid.RIGHT;
+        int sideA = horizontal ? MazeGrid.UP : MazeGrid.LEFT;
+        int sideB = horizontal ? MazeGrid.DOWN : MazeGrid.RIGHT;
+
+        int current = cell;
+        while (maze.canMove(current, d)) {
+            int previous = current;
+            current = maze.neighbor(current, d);
+
+            // the goal and the special tiles are always jump points
+            byte type = maze.getCell(current);
+            if (type != MazeGrid.EMPTY && type != MazeGrid.START) {
+                return current;
+            }
+
+            // forced neighbor: a side of this cell is open while the same side of the previous cell was blocked,
+            // so a path turning here can't be replaced by one turning earlier. a teleport never leads to the
+            // cells around it, so it counts as blocked here, and a teleport next to us is a reason to turn here
+            if ((walkable(current, sideA) && !walkable(previous, sideA)) ||
+                (walkable(current, sideB) && !walkable(previous, sideB)) ||
+                leadsToTeleport(current, sideA) || leadsToTeleport(current, sideB)) {
+                return current;
+            }
+
+            // when going up or down we also look sideways from every cell, if a horizontal jump finds
+            // something then this cell is where we have to turn
+            if (!horizontal && (jump(current, MazeGrid.LEFT) != -1 || jump(current, MazeGrid.RIGHT) != -1)) {
+                return current;
+            }
+        }
+
+        return -1;
+    }
+
+    // open in direction d and not onto a teleport, for the forced neighbor checks of jump
+    private boolean walkable(int cell, int d) {
+        return maze.canMove(cell, d) && maze.getCell(maze.neighbor(cell, d)) != MazeGrid.TELEPORT;
+    }
+
+    private boolean leadsToTeleport(int cell, int d) {
+        return maze.canMove(cell, d) && maze.getCell(maze.neighbor(cell, d)) == MazeGrid.TELEPORT;
+    }
+
     // Greedy Best-First Search algorithm
- // Greedy Best-First Search algorithm
     public boolean greedyBestFirst() {
         // Reset the maze before starting the search (clears visited flags, parents, and counter)
         resetMaze();
 
         // Priority queue that always picks the tile with the lowest heuristic (hScore)
         // Greedy Best-First Search only considers how close the tile is to the goal (not total path cost)
-        PriorityQueue<GreedyNode> openSet = new PriorityQueue<>((a, b) -> Double.compare(a.hScore, b.hScore));
-
-        // Closed set to keep track of visited/processed tiles
-        Set<Tile> closedSet = new HashSet<>();
-
-        // Create the start node with its heuristic value (distance to goal)
-        GreedyNode startNode = new GreedyNode(start, heuristic(start, end));
+        IndexedMinHeap openSet = clearedHeap();
 
-        // Add the start node to the open set and mark it as visited
-        openSet.offer(startNode);
-        start.setVisited(true);
+        // Add the start tile to the open set with its heuristic value (distance to goal) and mark it as visited
+        openSet.insertOrDecrease(start, heuristic(start, end));
+        context.markVisited(start);
 
         // Continue searching while there are nodes in the open set
         while (!openSet.isEmpty()) {
 
             // Remove the tile with the lowest heuristic value (closest to goal)
-            GreedyNode currentNode = openSet.poll();
-            Tile current = currentNode.tile;
-
-            // Skip this tile if already processed
-            if (closedSet.contains(current)) continue;
-
-            // Mark the tile as processed
-            closedSet.add(current);
+            int current = openSet.pop();
 
             // Update step counter and UI (if exists)
             counter.value++;
-            if (ui != null) {
-                ui.updateCounter(counter.value);
-                ui.updateUI();
-            }
+            expansions++;
+            step();
 
             // Check if we have reached the goal tile
-            if (current.isEnd()) {
-                System.out.println("Reached the end! Final counter: " + counter.value);
-                if (ui != null) {
-                    ui.updateCounter(counter.value);
-                    ui.updateUI();
-                }
+            if (maze.isEnd(current)) {
+                log("Reached the end! Final counter: " + counter.value);
+                step();
                 return true;
             }
 
             // Apply special tile effects (e.g., teleportation)
-            Tile next = current.applySpecialEffect(counter, maze);
+            int next = applySpecialEffect(current);
 
             // If teleportation happens (next != current), process the teleported tile
             if (next != current) {
-                if (!closedSet.contains(next)) {
+                if (next != -1 && !isClosed(next, openSet)) {
                     // Link the teleported tile to the current tile for path reconstruction
-                    next.setParent(current);
-                    next.setVisited(true);
+                    context.markVisited(next);
+                    context.setParent(next, current);
 
                     // Add the teleported tile to the open set based on its heuristic
-                    openSet.offer(new GreedyNode(next, heuristic(next, end)));
+                    openSet.insertOrDecrease(next, heuristic(next, end));
                 }
                 // Skip normal neighbor exploration when teleporting
                 continue;
             }
 
             // Explore all valid neighbors of the current tile
-            for (Tile neighbor : current.getValidNeighbors(maze)) {
-                // Skip already processed tiles
-                if (closedSet.contains(neighbor)) continue;
-
-                // If the neighbor hasn’t been visited yet
-                if (!neighbor.isVisited()) {
+            int open = maze.openDirections(current);
+            for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                if ((open & (1 << d)) == 0) continue;
+                int neighbor = maze.neighbor(current, d);
+
+                // If the neighbor hasn’t been visited yet (a processed tile is always visited, and the
+                // heuristic never changes, so a queued tile never needs its key lowered)
+                if (!context.isVisited(neighbor)) {
                     // Set parent for path reconstruction
-                    neighbor.setParent(current);
-                    neighbor.setVisited(true);
+                    context.markVisited(neighbor);
+                    context.setParent(neighbor, current);
 
                     // Add to open set with heuristic value (h(n))
-                    openSet.offer(new GreedyNode(neighbor, heuristic(neighbor, end)));
+                    openSet.insertOrDecrease(neighbor, heuristic(neighbor, end));
                 }
             }
         }
 
         // If the open set is empty and goal wasn’t reached, no path was found
-        System.out.println("No path found.");
+        log("No path found.");
         return false;
     }
 
-
- // Helper class to store tile and its heuristic score
-    private static class GreedyNode {
-        Tile tile;      // The current tile
-        double hScore;  // Heuristic value: estimated distance to the goal (h(n))
-
-        GreedyNode(Tile tile, double hScore) {
-            this.tile = tile;
-            this.hScore = hScore;
-        }
-    }
-
     
     // Dijkstra's algorithm
     public boolean Dijkstra() {
-        // Reset the maze to clear all visited flags, parent links, and UI counter
-        resetMaze();
+        return dijkstra(clearedHeap());
+    }
 
-        // Priority queue that always selects the tile with the smallest distance from the start
-        PriorityQueue<DijkstraNode> pq = new PriorityQueue<>((a, b) -> Double.compare(a.distance, b.distance));
+    // Dijkstra's algorithm on a bucket queue (Dial's algorithm), distances are small integers
+    // so we keep one bucket per distance instead of paying O(log n) per heap operation
+    public boolean DijkstraBucket() {
+        return dijkstra(clearedBuckets());
+    }
 
-        // HashMap to store the shortest known distance from the start tile to each tile
-        Map<Tile, Double> distances = new HashMap<>();
+    // pq is an empty priority queue that always selects the tile with the smallest distance from the start,
+    // a tile that gets a shorter distance has its key lowered in place
+    private boolean dijkstra(CellQueue pq) {
+        // Reset the maze to clear all visited flags, parent links, and UI counter
+        resetMaze();
 
-        // Set to keep track of tiles that have already been fully processed
-        Set<Tile> visited = new HashSet<>();
+        // the shortest known distance from the start tile to each tile lives in the context's distance array
 
         // Start node has a distance of 0 (since we're starting there)
-        pq.offer(new DijkstraNode(start, 0));
-        distances.put(start, 0.0);
-        start.setVisited(true); // Mark the start as visited
+        context.markVisited(start); // Mark the start as visited
+        context.setDistance(start, 0);
+        pq.insertOrDecrease(start, 0);
 
         // Main loop continues as long as there are nodes to process
         while (!pq.isEmpty()) {
-            // Retrieve the tile with the smallest distance value
-            DijkstraNode currentNode = pq.poll();
-            Tile current = currentNode.tile;
-
-            // Skip this tile if it has already been processed
-            if (visited.contains(current)) continue;
-
-            // Mark the tile as processed
-            visited.add(current);
+            // Retrieve the tile with the smallest distance value, each tile comes out of the queue only once
+            int current = pq.pop();
 
             // Update step counter and refresh UI
             counter.value++;
-            if (ui != null) {
-                ui.updateCounter(counter.value);
-                ui.updateUI();
-            }
+            expansions++;
+            step();
 
             // Check if the goal has been reached
-            if (current.isEnd()) {
-                System.out.println("Reached the end! Final counter: " + counter.value);
-                if (ui != null) {
-                    ui.updateCounter(counter.value);
-                    ui.updateUI();
-                }
+            if (maze.isEnd(current)) {
+                log("Reached the end! Final counter: " + counter.value);
+                step();
                 return true;
             }
 
             // Apply special effect (e.g., teleportation)
-            Tile next = current.applySpecialEffect(counter, maze);
+            int next = applySpecialEffect(current);
 
             // Handle teleportation
             if (next != current) {
                 // Compute the new tentative distance through this path
-                double newDistance = distances.get(current) + 1;
+                int newDistance = context.getDistance(current) + 1;
 
                 // If this is the shortest path to this teleport destination
-                if (!distances.containsKey(next) || newDistance < distances.get(next)) {
-                    distances.put(next, newDistance);
-                    next.setParent(current); // Set parent for path reconstruction
-                    next.setVisited(true);
-                    pq.offer(new DijkstraNode(next, newDistance));
+                if (next != -1 && !isClosed(next, pq) && newDistance < context.getDistance(next)) {
+                    context.markVisited(next);
+                    context.setDistance(next, newDistance);
+                    context.setParent(next, current); // Set parent for path reconstruction
+                    pq.insertOrDecrease(next, newDistance);
                 }
                 continue; // Skip normal neighbor exploration in this case
             }
 
             // Explore all valid adjacent tiles
-            for (Tile neighbor : current.getValidNeighbors(maze)) {
-                // Skip neighbors already visited
-                if (visited.contains(neighbor)) continue;
+            int open = maze.openDirections(current);
+            for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                if ((open & (1 << d)) == 0) continue;
+                int neighbor = maze.neighbor(current, d);
+
+                // Skip neighbors already processed
+                if (isClosed(neighbor, pq)) continue;
 
                 // Calculate the distance to this neighbor through the current tile
-                double newDistance = distances.get(current) + 1;
+                int newDistance = context.getDistance(current) + 1;
 
                 // Update distance and parent if it's the shortest path found so far
-                if (!distances.containsKey(neighbor) || newDistance < distances.get(neighbor)) {
-                    distances.put(neighbor, newDistance);
-                    neighbor.setParent(current);
-                    neighbor.setVisited(true);
-                    pq.offer(new DijkstraNode(neighbor, newDistance));
+                if (newDistance < context.getDistance(neighbor)) {
+                    context.markVisited(neighbor);
+                    context.setDistance(neighbor, newDistance);
+                    context.setParent(neighbor, current);
+                    pq.insertOrDecrease(neighbor, newDistance);
                 }
             }
         }
 
         // If the queue is empty and the goal wasn't reached, there is no path
-        System.out.println("No path found.");
+        log("No path found.");
         return false;
     }
-    
- // Helper class to hold a tile and its distance from the start
-    private static class DijkstraNode {
-        Tile tile;        // The current tile
-        double distance;  // The distance from the start tile to this tile
 
-        DijkstraNode(Tile tile, double distance) {
-            this.tile = tile;
-            this.distance = distance;
+    // a tile is done (closed) once it was visited and has already left the priority queue
+    private boolean isClosed(int cell, CellQueue openSet) {
+        return context.isVisited(cell) && !openSet.contains(cell);
+    }
+
+    // the priority queue shared by A*, Greedy and Dijkstra, created the first time one of them runs
+    // and then reused (emptied) on every solve so we don't allocate it again
+    private IndexedMinHeap clearedHeap() {
+        if (heap == null) {
+            heap = new IndexedMinHeap(maze.size());
+        }
+        heap.clear();
+        return heap;
+    }
+
+    // the array behind the BFS queues, a cell is marked visited before it's queued so it goes in at most once
+    // and one slot per tile is always enough. created once and reused like the heap, no boxing or list nodes
+    private int[] bfsQueue() {
+        if (queue == null) {
+            queue = new int[maze.size()];
         }
+        return queue;
+    }
+
+    // same idea for the bucket queue used by AStarBucket and DijkstraBucket
+    private BucketQueue clearedBuckets() {
+        if (buckets == null) {
+            buckets = new BucketQueue(maze.size());
+        }
+        buckets.clear();
+        return buckets;
     }
 
     
@@ -531,151 +1182,258 @@ public class MazeSolver {
         // Reset the maze before starting the algorithm
         resetMaze();
 
-        // A 2D array to mark dead-end tiles
-        boolean[][] isDeadEnd = new boolean[maze.length][maze[0].length];
-        
-        // A flag to indicate if we found any new dead ends in a pass
-        boolean foundDeadEnd = true;
-
-        // Phase 1: Dead-end filling — iteratively mark all dead-end paths
-        while (foundDeadEnd) {
-            foundDeadEnd = false;
+        // Phase 1: Dead-end filling — mark all dead-end paths
+        boolean[] isDeadEnd = fillDeadEnds();
 
-            // Scan the entire maze
-            for (int i = 0; i < maze.length; i++) {
-                for (int j = 0; j < maze[i].length; j++) {
-                    Tile tile = maze[i][j];
-
-                    // Skip walls, start, end, or tiles already marked as dead ends
-                    if (tile.isWall() || tile.isStart() || tile.isEnd() || isDeadEnd[i][j]) {
-                        continue;
-                    }
-
-                    // Count number of walkable and non-dead-end neighbors
-                    int walkableNeighbors = 0;
-                    int[][] directions = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}}; // up, down, left, right
+        // Phase 2: Use BFS to search for a path while avoiding dead-end tiles
+        return searchWithoutDeadEnds(isDeadEnd);
+    }
 
-                    for (int[] dir : directions) {
-                        int newRow = i + dir[0];
-                        int newCol = j + dir[1];
+    // Dead end fill with the filling spread over all cores (the common ForkJoinPool), same dead ends,
+    // counter and path as deadEndFill()
+    public boolean parallelDeadEndFill() {
+        return parallelDeadEndFill(ForkJoinPool.commonPool());
+    }
 
-                        // Check bounds and valid walkable neighbor
-                        if (newRow >= 0 && newRow < maze.length &&
-                            newCol >= 0 && newCol < maze[0].length) {
+    // the same on a pool of the given size, mostly for measuring how it scales with the number of threads
+    public boolean parallelDeadEndFill(int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return parallelDeadEndFill(pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
 
-                            Tile neighbor = maze[newRow][newCol];
-                            if (!neighbor.isWall() && !isDeadEnd[newRow][newCol]) {
-                                walkableNeighbors++;
-                            }
-                        }
-                    }
+    // the maze is filled in bands by the pool's workers (see ParallelDeadEndFill), they don't touch the UI,
+    // so the dead ends are shown once the fill is done
+    private boolean parallelDeadEndFill(ForkJoinPool pool) {
+        resetMaze();
 
-                    // If the tile has 1 or fewer valid paths, it's a dead end
-                    if (walkableNeighbors <= 1) {
-                        isDeadEnd[i][j] = true; // Mark as dead end
-                        foundDeadEnd = true;    // Trigger another pass
-                        counter.value++;        // Track how many dead ends we processed
-
-                        // Update the UI to mark the tile visually
-                        if (ui != null) {
-                            ui.markDeadEndTile(i, j);
-                            ui.updateCounter(counter.value);
-                            ui.updateUI();
-                        }
-                    }
-                }
+        ParallelDeadEndFill fill = new ParallelDeadEndFill(maze);
+        boolean[] isDeadEnd = fill.run(pool);
+        deadEnds = isDeadEnd;
+        if (listener != null) {
+            for (int cell = 0; cell < maze.size(); cell++) {
+                if (isDeadEnd[cell])
+                    markDeadEnd(cell, isDeadEnd);
             }
+        } else {
+            counter.value += fill.getDeadEnds();
         }
 
-        // Phase 2: Use BFS to search for a path while avoiding dead-end tiles
-        Queue<Tile> queue = new LinkedList<>();
-        queue.offer(start);           // Begin from the start tile
-        start.setVisited(true);
+        return searchWithoutDeadEnds(isDeadEnd);
+    }
+
+    // BFS from the start that never steps on a dead end, the second phase of both dead end fills
+    private boolean searchWithoutDeadEnds(boolean[] isDeadEnd) {
+        int[] queue = bfsQueue();
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;        // Begin from the start tile
+        context.markVisited(start);
 
         // BFS loop
-        while (!queue.isEmpty()) {
-            Tile current = queue.poll();
+        while (head < tail) {
+            int current = queue[head++];
 
             // Check if we reached the goal
-            if (current.isEnd()) {
-                System.out.println("Reached the end! Final counter: " + counter.value);
-                if (ui != null) {
-                    ui.updateCounter(counter.value);
-                    ui.updateUI();
-                }
+            if (maze.isEnd(current)) {
+                log("Reached the end! Final counter: " + counter.value);
+                step();
                 return true;
             }
 
             // Update step counter and refresh UI
             counter.value++;
-            if (ui != null) {
-                ui.updateCounter(counter.value);
-                ui.updateUI();
-            }
+            expansions++;
+            step();
 
             // Apply special tile behavior (e.g., teleport)
-            Tile next = current.applySpecialEffect(counter, maze);
+            int next = applySpecialEffect(current);
 
             // If teleportation happened, check if destination is valid
             if (next != current) {
-                if (!next.isVisited() && !isDeadEnd[next.getRow()][next.getCol()]) {
-                    next.setVisited(true);
-                    next.setParent(current);
-                    queue.offer(next);
+                if (next != -1 && !context.isVisited(next) && !isDeadEnd[next]) {
+                    context.markVisited(next);
+                    context.setParent(next, current);
+                    queue[tail++] = next;
                 }
                 continue; // Don't explore neighbors if we teleported
             }
 
             // Explore each neighbor that is not a dead end
-            for (Tile neighbor : current.getValidNeighbors(maze)) {
-                if (!isDeadEnd[neighbor.getRow()][neighbor.getCol()]) {
-                    neighbor.setVisited(true);
-                    neighbor.setParent(current);
-                    queue.offer(neighbor);
+            int open = maze.openDirections(current);
+            for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                if ((open & (1 << d)) == 0) continue;
+                int neighbor = maze.neighbor(current, d);
+
+                if (!context.isVisited(neighbor) && !isDeadEnd[neighbor]) {
+                    context.markVisited(neighbor);
+                    context.setParent(neighbor, current);
+                    queue[tail++] = neighbor;
                 }
             }
         }
 
         // No valid path was found
-        System.out.println("No path found.");
+        log("No path found.");
         return false;
     }
 
-    
-    // Helper method to reset maze state
-    private void resetMaze() {
-        for (Tile[] row : maze) {
-            for (Tile tile : row) {
-                tile.setVisited(false);
-                tile.setParent(null);
+    // marks every tile that can't be on a path from start to end: a tile with at most one walkable neighbor that
+    // isn't a dead end yet. instead of rescanning the whole maze until nothing changes, every tile keeps the number
+    // of its walkable neighbors that aren't dead ends, marking a tile only lowers the count of its neighbors, so only
+    // those can become new dead ends and go on the worklist. every tile is marked at most once, O(cells) in total.
+    // marking never makes a tile walkable again, so we end up with the same dead ends as the old repeated scans
+    private boolean[] fillDeadEnds() {
+        boolean[] isDeadEnd = new boolean[maze.size()];
+        deadEnds = isDeadEnd;
+        byte[] degree = new byte[maze.size()];
+        int[] worklist = new int[maze.size()];
+        int head = 0;
+        int tail = 0;
+
+        // seed the worklist with the tiles that are already dead ends
+        for (int cell = 0; cell < maze.size(); cell++) {
+            if (!canFill(cell))
+                continue;
+            degree[cell] = (byte) Integer.bitCount(maze.openDirections(cell));
+            if (degree[cell] <= 1) {
+                markDeadEnd(cell, isDeadEnd);
+                worklist[tail++] = cell;
+            }
+        }
+
+        // a dead end takes one walkable neighbor away from each of its neighbors
+        while (head < tail) {
+            int cell = worklist[head++];
+            int open = maze.openDirections(cell);
+            for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                if ((open & (1 << d)) == 0) continue;
+                int neighbor = maze.neighbor(cell, d);
+                if (isDeadEnd[neighbor] || !canFill(neighbor))
+                    continue;
+                if (--degree[neighbor] <= 1) {
+                    markDeadEnd(neighbor, isDeadEnd);
+                    worklist[tail++] = neighbor;
+                }
             }
         }
+        return isDeadEnd;
+    }
+
+    // walls are never walkable and the start and end are never dead ends
+    private boolean canFill(int cell) {
+        byte type = maze.getCell(cell);
+        return type != MazeGrid.WALL && type != MazeGrid.START && type != MazeGrid.END;
+    }
+
+    private void markDeadEnd(int cell, boolean[] isDeadEnd) {
+        isDeadEnd[cell] = true;
+        counter.value++;        // Track how many dead ends we processed
+
+        // Tell the UI to mark the tile visually
+        if (listener != null) {
+            listener.deadEnd(cell);
+            listener.step(counter.value);
+        }
+    }
+    
+    // this method applies all the special tiles effects ( increase or decrease counter, and teleportation)
+    // and returns the cell we end up on
+    private int applySpecialEffect(int cell) {
+        switch (maze.getCell(cell)) {
+            case MazeGrid.COUNTER_UP:
+                counter.value += 50;
+                break;
+            case MazeGrid.COUNTER_DOWN:
+                counter.value -= 50;
+                break;
+            case MazeGrid.TELEPORT:
+                // a random open tile we haven't visited yet, or -1 when every tile was visited already,
+                // the teleport leads nowhere then (it never leads to its own neighbors)
+                return context.getTeleportTargets().pick(random);
+
+            default:
+                break;
+        }
+
+        return cell; // return current cell if not teleport
+    }
+    
+    // Helper method to reset maze state, O(1) since the context only bumps its epoch
+    public void resetMaze() {
+        context.reset();
+        if (backward != null)
+            backward.reset();
         counter.value = 0;
+        expansions = 0;
+        deadEnds = null;
+        if (seeded)
+            random.setSeed(seed);
     }
     
     
-    // this method backtracks from end to finish using the parent tiles to return the shortest path we found
+    // this method backtracks from end to finish using the parent cells to return the shortest path we found,
+    // the Tile objects are only created here for the cells on the path
     public List<Tile> reconstructPath(Tile end) {
         List<Tile> path = new ArrayList<>();
-        Tile current = end;
-        while (current != null) {
-            path.add(current);
-            current = current.getParent();
+        int current = maze.index(end.getRow(), end.getCol());
+        while (current != -1) {
+            path.add(maze.tileAt(current));
+            int parentCell = context.getParent(current);
+
+            // jump point search links cells that are several steps apart on a straight line,
+            // so we fill in the cells in between (a teleport parent is a real jump, nothing to fill)
+            if (parentCell != -1 && maze.getCell(parentCell) != MazeGrid.TELEPORT) {
+                int step = maze.rowOf(parentCell) == maze.rowOf(current) ? 1 : maze.getCols();
+                if (parentCell < current)
+                    step = -step;
+                for (int between = current + step; between != parentCell; between += step) {
+                    path.add(maze.tileAt(between));
+                }
+            }
+            current = parentCell;
         }
         Collections.reverse(path);
         return path;
     }
     
+    // used by the UI to color explored cells
+    public boolean isVisited(int row, int col) {
+        int cell = maze.index(row, col);
+        return context.isVisited(cell) || (backward != null && backward.isVisited(cell));
+    }
+
+    // whether the running (or last) dead end fill marked the tile as a dead end
+    public boolean isDeadEnd(int row, int col) {
+        boolean[] deadEnds = this.deadEnds;
+        return deadEnds != null && deadEnds[maze.index(row, col)];
+    }
+    
     // Getters
     public Counter getCounter() {
         return counter;
     }
     
+    public long getExpansions() {
+        return expansions;
+    }
+    
+    public MazeGrid getMaze() {
+        return maze;
+    }
+    
+    public SearchContext getContext() {
+        return context;
+    }
+    
     public Tile getStart() {
-        return start;
+        return maze.tileAt(start);
     }
     
     public Tile getEnd() {
-        return end;
+        return maze.tileAt(end);
     }
 }
\ No newline at end of file
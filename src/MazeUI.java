@@ -5,6 +5,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
 import java.io.IOException;
+import java.util.BitSet;
 import java.util.List;
 
 public class MazeUI extends JFrame {
@@ -12,18 +13,65 @@ public class MazeUI extends JFrame {
     // UI Components
     private JPanel gridPanel;
     private JPanel controlPanel;
-    private JPanel[][] gridPanels;
+    private MazeCanvas canvas;
     private JLabel counterLabel;
     private JComboBox<String> algorithmDropdown;
+    private JComboBox<String> speedDropdown;
     private JButton loadMazeButton;
     private JButton startButton;
+    private JButton replayButton;
+    private JButton saveTraceButton;
+    private JButton loadTraceButton;
+    private JButton compareButton;
+    private JSlider stepSlider;
     
     // Maze data
-    private Tile[][] maze;
+    private MazeGrid maze;
     private MazeSolver solver;
     private Counter counter ;
     private boolean mazeLoaded;
-    private boolean[][] deadEndTiles; // Track dead end tiles for visualization
+    
+    // what the grid shows right now, only touched on the EDT. the playback catches up with the solver one frame
+    // at a time, so this is usually behind what the solver has already done
+    private BitSet explored = new BitSet();
+    private BitSet deadEnds = new BitSet();
+    private BitSet finalPath = new BitSet(); // cells of the path found, drawn on top of everything else
+    private int shownCounter;
+    
+    // the solver writes its steps into the buffer, the playback timer reads them back every frame
+    // (see StepBuffer), so the solver is never slowed down by repaints
+    private final StepBuffer steps = new StepBuffer();
+    private final Playback playback = new Playback();
+    private Timer frameTimer;
+    private long lastFrame;
+    private double stepAllowance;
+    
+    // set once the buffer dropped events in this run: explored and deadEnds miss tiles then, so colorOf asks the
+    // solver itself. the tiles on screen are recolored at most every RESYNC_NANOS while more drops come in
+    private boolean stale;
+    private boolean resyncPending;
+    private long lastResync;
+    private static final long RESYNC_NANOS = 250_000_000;
+    
+    // every run is also recorded (see TraceRecorder), the last one (or a loaded one) can be replayed, scrubbed
+    // through with the step slider and compared with another trace without running the solver again
+    private TraceRecorder recorder;
+    private SolveTrace lastTrace;
+    private TracePlayer[] players;      // null unless the grid shows a replay
+    private MazeCanvas[] replayCanvases;
+    private Timer replayTimer;
+    private double replayPosition;
+    private boolean movingSlider;       // the slider is moved by the replay, not by the user
+    
+    // playback speeds in steps per second, UNTHROTTLED lets the solver run at full speed and shows
+    // whatever it got to once per frame
+    private static final int UNTHROTTLED = 0;
+    private static final String[] SPEED_NAMES = {
+        "10 steps/s", "100 steps/s", "1,000 steps/s", "10,000 steps/s", "Unthrottled"
+    };
+    private static final int[] STEPS_PER_SECOND = {10, 100, 1000, 10000, UNTHROTTLED};
+    private static final int DEFAULT_SPEED = 1;
+    private static final int FRAME_MILLIS = 16; // about 60 frames per second
     
     // Colors for different tile states
     private static final Color WALL_COLOR = Color.BLACK;
@@ -62,7 +110,7 @@ public class MazeUI extends JFrame {
     
     private void initializeComponents() {
         // Grid panel - initially empty
-        gridPanel = new JPanel();
+        gridPanel = new JPanel(new BorderLayout());
         gridPanel.setBorder(BorderFactory.createTitledBorder("Maze Grid"));
         gridPanel.setPreferredSize(new Dimension(600, 400));
         
@@ -70,7 +118,7 @@ public class MazeUI extends JFrame {
         controlPanel = new JPanel();
         controlPanel.setLayout(new BoxLayout(controlPanel, BoxLayout.Y_AXIS));
         controlPanel.setBorder(BorderFactory.createTitledBorder("Controls"));
-        controlPanel.setPreferredSize(new Dimension(250, 400));
+        controlPanel.setPreferredSize(new Dimension(250, 650));
         
         // Counter label
         counterLabel = new JLabel("Counter: 0");
@@ -80,17 +128,39 @@ public class MazeUI extends JFrame {
         String[] algorithms = {
             "Depth-First Search (DFS)", 
             "Breadth-First Search (BFS)", 
+            "Bidirectional BFS",
+            "Parallel BFS",
             "A* Search",
+            "Bidirectional A* Search",
+            "A* Search (Bucket Queue)",
+            "Jump Point Search",
             "Dijkstra's Algorithm",
+            "Dijkstra's Algorithm (Bucket Queue)",
             "Greedy Best-First Search",
-            "Dead End Fill"
+            "Dead End Fill",
+            "Parallel Dead End Fill"
         };
         algorithmDropdown = new JComboBox<>(algorithms);
         
+        // Playback speed, can be changed while the algorithm runs
+        speedDropdown = new JComboBox<>(SPEED_NAMES);
+        speedDropdown.setSelectedIndex(DEFAULT_SPEED);
+        
+        frameTimer = new Timer(FRAME_MILLIS, e -> playFrame());
+        replayTimer = new Timer(FRAME_MILLIS, e -> replayFrame());
+        
         // Buttons
         loadMazeButton = new JButton("Load Maze");
         startButton = new JButton("Start Algorithm");
         startButton.setEnabled(false); // Disabled until maze is loaded
+        
+        // Replay of recorded runs, enabled once there is something to replay
+        replayButton = new JButton("Replay Last Run");
+        saveTraceButton = new JButton("Save Trace");
+        loadTraceButton = new JButton("Load Trace");
+        compareButton = new JButton("Compare With Trace");
+        stepSlider = new JSlider(0, 0, 0);
+        setTraceButtonsEnabled(false);
     }
     
     private void setupLayout() {
@@ -105,6 +175,10 @@ public class MazeUI extends JFrame {
         
         controlPanel.add(new JLabel("Algorithm:"));
         controlPanel.add(algorithmDropdown);
+        controlPanel.add(Box.createVerticalStrut(10));
+        
+        controlPanel.add(new JLabel("Playback speed:"));
+        controlPanel.add(speedDropdown);
         controlPanel.add(Box.createVerticalStrut(20));
         
         controlPanel.add(loadMazeButton);
@@ -112,6 +186,18 @@ public class MazeUI extends JFrame {
         controlPanel.add(startButton);
         controlPanel.add(Box.createVerticalStrut(20));
         
+        controlPanel.add(new JLabel("Replay:"));
+        controlPanel.add(replayButton);
+        controlPanel.add(Box.createVerticalStrut(5));
+        controlPanel.add(saveTraceButton);
+        controlPanel.add(Box.createVerticalStrut(5));
+        controlPanel.add(loadTraceButton);
+        controlPanel.add(Box.createVerticalStrut(5));
+        controlPanel.add(compareButton);
+        controlPanel.add(Box.createVerticalStrut(5));
+        controlPanel.add(stepSlider);
+        controlPanel.add(Box.createVerticalStrut(20));
+        
         // Add legend
         controlPanel.add(createLegend());
         
@@ -163,31 +249,81 @@ public class MazeUI extends JFrame {
                 startAlgorithm();
             }
         });
+        
+        speedDropdown.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                steps.setWaitForReader(!isUnthrottled());
+            }
+        });
+        
+        replayButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                replay(lastTrace);
+            }
+        });
+        
+        saveTraceButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                saveTrace();
+            }
+        });
+        
+        loadTraceButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                SolveTrace trace = chooseTrace();
+                if (trace != null) {
+                    lastTrace = trace;
+                    replay(trace);
+                }
+            }
+        });
+        
+        compareButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                SolveTrace other = chooseTrace();
+                if (other != null)
+                    replay(lastTrace, other);
+            }
+        });
+        
+        // dragging the slider jumps the replay to that step, it keeps playing from there
+        stepSlider.addChangeListener(e -> {
+            if (!movingSlider && players != null) {
+                replayPosition = stepSlider.getValue();
+                showReplayStep(stepSlider.getValue());
+            }
+        });
     }
     
     private void loadMaze() {
         JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setFileFilter(new FileNameExtensionFilter("Text files", "txt"));
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Maze files (.txt, .maze)", "txt", "maze"));
         
         int result = fileChooser.showOpenDialog(this);
         if (result == JFileChooser.APPROVE_OPTION) {
             File selectedFile = fileChooser.getSelectedFile();
             try {
-                // Load maze using your existing classes
-                MazeLoader loader = new MazeLoader();
-                char[][] charMaze = loader.load(selectedFile.getAbsolutePath());
-                maze = Tile.convertToTiles(charMaze);
+                // Load maze using your existing classes (text or binary .maze file)
+                maze = MazeFile.load(selectedFile.getAbsolutePath());
                 
-                // Create solver and set UI reference
+                // Create solver, the listener is set for each run
                 solver = new MazeSolver(maze);
                 counter = solver.getCounter();
-                solver.setUI(this);
                 
                 // Setup grid display
+                replayTimer.stop();
+                players = null;
+                lastTrace = null;
                 setupGrid();
                 
                 mazeLoaded = true;
                 startButton.setEnabled(true);
+                setTraceButtonsEnabled(true);
                 
                 JOptionPane.showMessageDialog(this, "Maze loaded successfully!");
                 
@@ -198,46 +334,54 @@ public class MazeUI extends JFrame {
         }
     }
     
+    // one canvas draws the whole grid (see MazeCanvas), it asks colorOf for the tiles it shows
     private void setupGrid() {
         gridPanel.removeAll();
-        
-        int rows = maze.length;
-        int cols = maze[0].length;
-        
-        gridPanel.setLayout(new GridLayout(rows, cols, 1, 1));
-        gridPanels = new JPanel[rows][cols];
-        
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) {
-                JPanel panel = new JPanel();
-                panel.setPreferredSize(new Dimension(25, 25));
-                panel.setBorder(BorderFactory.createLineBorder(Color.GRAY));
-                panel.setOpaque(true);
-                
-                // Set initial color based on tile type
-                setTileColor(panel, maze[i][j]);
-                
-                gridPanels[i][j] = panel;
-                gridPanel.add(panel);
-            }
-        }
-        
+        explored.clear();
+        deadEnds.clear();
+        finalPath.clear();
+
+        canvas = new MazeCanvas(maze, this::colorOf);
+        canvas.refreshAll();
+        gridPanel.add(canvas, BorderLayout.CENTER);
+
         gridPanel.revalidate();
         gridPanel.repaint();
         pack();
     }
     
-    private void setTileColor(JPanel panel, Tile tile) {
+    // the color of a tile (as RGB) for its current state.
+    // a stale grid reads the solver while it runs: every event that made it through the buffer was written after
+    // the solver's own writes, and reading the buffer's tail orders those before us. writes after the last event
+    // may or may not show yet, a tile is just colored a frame later then
+    private int colorOf(int cell) {
+        if (stale) {
+            int row = maze.rowOf(cell);
+            int col = maze.colOf(cell);
+            return colorOf(cell, solver.isVisited(row, col), solver.isDeadEnd(row, col), finalPath.get(cell));
+        }
+        return colorOf(cell, explored.get(cell), deadEnds.get(cell), finalPath.get(cell));
+    }
+    
+    // the color of a tile in a replay
+    private int colorOf(TracePlayer player, int cell) {
+        return colorOf(cell, player.isVisited(cell), player.isDeadEnd(cell), player.isOnPath(cell));
+    }
+    
+    private int colorOf(int cell, boolean isExplored, boolean isDeadEnd, boolean isOnPath) {
         Color color;
+        TileType type = maze.getType(cell);
+        boolean isStartOrEnd = type == TileType.START || type == TileType.END;
         
+        if (isOnPath && !isStartOrEnd) {
+            color = FINAL_PATH_COLOR;
         // Check if this tile is marked as a dead end
-        if (deadEndTiles != null && deadEndTiles[tile.getRow()][tile.getCol()] && 
-            !tile.isStart() && !tile.isEnd() && !tile.isWall()) {
+        } else if (isDeadEnd && !isStartOrEnd && type != TileType.WALL) {
             color = DEAD_END_COLOR;
-        } else if (tile.isVisited() && !tile.isStart() && !tile.isEnd()) {
+        } else if (isExplored && !isStartOrEnd) {
             color = EXPLORED_COLOR;
         } else {
-            switch (tile.getType()) {
+            switch (type) {
                 case WALL:
                     color = WALL_COLOR;
                     break;
@@ -261,55 +405,75 @@ public class MazeUI extends JFrame {
             }
         }
         
-        panel.setBackground(color);
+        return color.getRGB();
     }
     
-    public void updateUI() {
-        if (maze == null || gridPanels == null) return;
+    private boolean isUnthrottled() {
+        return STEPS_PER_SECOND[speedDropdown.getSelectedIndex()] == UNTHROTTLED;
+    }
+    
+    // one frame of the playback: shows as many steps as the speed allows since the last frame
+    // (everything the solver did so far when unthrottled) and repaints the tiles that changed
+    private void playFrame() {
+        long now = System.nanoTime();
+        long budget;
+        if (isUnthrottled()) {
+            budget = Long.MAX_VALUE;
+            stepAllowance = 0;
+        } else {
+            stepAllowance += (now - lastFrame) * STEPS_PER_SECOND[speedDropdown.getSelectedIndex()] / 1e9;
+            budget = (long) stepAllowance;
+        }
+        lastFrame = now;
         
-        SwingUtilities.invokeLater(() -> {
-            // Update grid colors
-            for (int i = 0; i < maze.length; i++) {
-                for (int j = 0; j < maze[0].length; j++) {
-                    setTileColor(gridPanels[i][j], maze[i][j]);
-                }
-            }
-            
-            // Update counter
-            counterLabel.setText("Counter: " + counter.value);
-            
-            // Repaint
-            gridPanel.repaint();
-        });
+        long shown = steps.drain(playback, budget);
+        // whatever is left over (less than a step, or nothing if the solver is slower than the playback)
+        stepAllowance = Math.min(stepAllowance - shown, 1);
         
-        // Sleep to show progress
-        try {
-            Thread.sleep(100); // Adjust delay as needed
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        // the solver got a whole buffer ahead and steps were dropped, show where it is now instead
+        if (steps.takeDropped()) {
+            stale = true;
+            resyncPending = true;
+        }
+        if (resyncPending && now - lastResync >= RESYNC_NANOS) {
+            resync(now);
         }
+        
+        canvas.repaintDirty();
+        counterLabel.setText("Counter: " + shownCounter);
     }
     
-    public void updateCounter(int newCounter) {
-        counter.value = newCounter;
+    // recolors the tiles on screen from the solver (see colorOf), the ones off screen get their colors when
+    // they're scrolled into view
+    private void resync(long now) {
+        resyncPending = false;
+        lastResync = now;
+        canvas.refreshVisible();
     }
     
-    public void highlightFinalPath(List<Tile> path) {
-        SwingUtilities.invokeLater(() -> {
-            for (Tile tile : path) {
-                if (!tile.isStart() && !tile.isEnd()) {
-                    JPanel panel = gridPanels[tile.getRow()][tile.getCol()];
-                    panel.setBackground(FINAL_PATH_COLOR);
-                }
-            }
-            gridPanel.repaint();
-        });
+    // applies the solver's events to what the grid shows, called by playFrame on the EDT
+    private class Playback implements SolverListener {
+        @Override
+        public void visited(int cell) {
+            explored.set(cell);
+            canvas.setCellColor(cell, colorOf(cell));
+        }
         
-        // Sleep to show the final path
-        try {
-            Thread.sleep(500);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        @Override
+        public void deadEnd(int cell) {
+            deadEnds.set(cell);
+            canvas.setCellColor(cell, colorOf(cell));
+        }
+        
+        @Override
+        public void path(int cell) {
+            finalPath.set(cell);
+            canvas.setCellColor(cell, colorOf(cell));
+        }
+        
+        @Override
+        public void step(int counter) {
+            shownCounter = counter;
         }
     }
     
@@ -319,27 +483,62 @@ public class MazeUI extends JFrame {
             return;
         }
         
+        // Back from a replay to the live grid
+        if (players != null) {
+            replayTimer.stop();
+            players = null;
+            setupGrid();
+        }
+        
         // Reset maze state
         resetMaze();
         
-        // Disable start button during execution
+        // Disable start button (and loading another maze or trace) during execution
         startButton.setEnabled(false);
+        loadMazeButton.setEnabled(false);
+        setTraceButtonsEnabled(false);
+        
+        // Record the run next to the playback
+        recorder = new TraceRecorder(maze, (String) algorithmDropdown.getSelectedItem());
+        SolverListener listener = SolverListener.both(steps, recorder);
+        solver.setListener(listener);
+        
+        // Start the playback of the steps
+        steps.setWaitForReader(!isUnthrottled());
+        lastFrame = System.nanoTime();
+        stepAllowance = 0;
+        frameTimer.start();
         
-        // Run algorithm in separate thread to avoid blocking UI
-        SwingWorker<Boolean, Void> worker = new SwingWorker<Boolean, Void>() {
+        // Run algorithm in separate thread to avoid blocking UI,
+        // it returns the path found (null if there is none)
+        SwingWorker<List<Tile>, Void> worker = new SwingWorker<List<Tile>, Void>() {
             @Override
-            protected Boolean doInBackground() throws Exception {
+            protected List<Tile> doInBackground() throws Exception {
                 String selectedAlgorithm = (String) algorithmDropdown.getSelectedItem();
                 
                 boolean found = false;
                 
                 // Call the appropriate algorithm based on selection
-                if (selectedAlgorithm.contains("DFS")) {
+                if (selectedAlgorithm.contains("Bidirectional") && selectedAlgorithm.contains("BFS")) {
+                    found = solver.bidirectionalBFS();
+                } else if (selectedAlgorithm.contains("Bidirectional") && selectedAlgorithm.contains("A*")) {
+                    found = solver.bidirectionalAStar();
+                } else if (selectedAlgorithm.contains("Parallel") && selectedAlgorithm.contains("Dead End")) {
+                    found = solver.parallelDeadEndFill();
+                } else if (selectedAlgorithm.contains("Parallel")) {
+                    found = solver.parallelBFS();
+                } else if (selectedAlgorithm.contains("DFS")) {
                     found = solver.DFS();
                 } else if (selectedAlgorithm.contains("BFS")) {
                     found = solver.BFS();
+                } else if (selectedAlgorithm.contains("Jump Point")) {
+                    found = solver.jumpPointSearch();
+                } else if (selectedAlgorithm.contains("A*") && selectedAlgorithm.contains("Bucket")) {
+                    found = solver.AStarBucket();
                 } else if (selectedAlgorithm.contains("A*")) {
                     found = solver.AStar();
+                } else if (selectedAlgorithm.contains("Dijkstra") && selectedAlgorithm.contains("Bucket")) {
+                    found = solver.DijkstraBucket();
                 } else if (selectedAlgorithm.contains("Dijkstra")) {
                     found = solver.Dijkstra();
                 } else if (selectedAlgorithm.contains("Greedy")) {
@@ -348,18 +547,38 @@ public class MazeUI extends JFrame {
                     found = solver.deadEndFill();
                 }
                 
-                return found;
+                // The final path is played back after the steps
+                List<Tile> path = null;
+                if (found) {
+                    path = solver.reconstructPath(solver.getEnd());
+                    for (Tile tile : path) {
+                        listener.path(maze.index(tile.getRow(), tile.getCol()));
+                    }
+                }
+                
+                // Wait until the playback has shown everything
+                steps.awaitEmpty();
+                return path;
             }
             
             @Override
             protected void done() {
+                frameTimer.stop();
+                playFrame();
+                // the solver is done, the last drops since the rate limited resync are shown now
+                if (resyncPending) {
+                    resync(System.nanoTime());
+                }
+                if (stale) {
+                    // steps were dropped too, the worker has finished so its counter can be read now
+                    shownCounter = counter.value;
+                    counterLabel.setText("Counter: " + shownCounter);
+                }
+                lastTrace = recorder.finish();
+                
                 try {
-                    boolean found = get();
-                    if (found) {
-                        // Show final path
-                        List<Tile> path = solver.reconstructPath(findEndTile());
-                        highlightFinalPath(path);
-                        
+                    List<Tile> path = get();
+                    if (path != null) {
                         // Show success message with algorithm info
                         String algorithm = (String) algorithmDropdown.getSelectedItem();
                         String message = String.format("Path found using %s!\nSteps taken: %d\nPath length: %d", 
@@ -379,6 +598,8 @@ public class MazeUI extends JFrame {
                 
                 // Re-enable start button
                 startButton.setEnabled(true);
+                loadMazeButton.setEnabled(true);
+                setTraceButtonsEnabled(true);
             }
         };
         
@@ -387,33 +608,135 @@ public class MazeUI extends JFrame {
     
     private void resetMaze() {
         counter.value = 0;
-        deadEndTiles = null; // Reset dead end tracking
-        for (Tile[] row : maze) {
-            for (Tile tile : row) {
-                tile.setVisited(false);
-                tile.setParent(null);
-            }
+        shownCounter = 0;
+        steps.clear();
+        stale = false;
+        resyncPending = false;
+        explored.clear();
+        deadEnds.clear();
+        finalPath.clear();
+        solver.resetMaze();
+        canvas.refreshAll();
+        counterLabel.setText("Counter: 0");
+    }
+    
+    private void setTraceButtonsEnabled(boolean enabled) {
+        replayButton.setEnabled(enabled && lastTrace != null);
+        saveTraceButton.setEnabled(enabled && lastTrace != null);
+        compareButton.setEnabled(enabled && lastTrace != null);
+        loadTraceButton.setEnabled(enabled);
+        stepSlider.setEnabled(enabled && players != null);
+    }
+    
+    // shows the traces next to each other (each with its own player and canvas) and plays them from the start
+    // at the playback speed, nothing is solved again
+    private void replay(SolveTrace... traces) {
+        replayTimer.stop();
+        gridPanel.removeAll();
+        
+        players = new TracePlayer[traces.length];
+        replayCanvases = new MazeCanvas[traces.length];
+        JPanel views = new JPanel(new GridLayout(1, traces.length, 5, 0));
+        int maxSteps = 0;
+        for (int i = 0; i < traces.length; i++) {
+            TracePlayer player = new TracePlayer(traces[i]);
+            MazeCanvas view = new MazeCanvas(maze, cell -> colorOf(player, cell));
+            view.refreshAll();
+            players[i] = player;
+            replayCanvases[i] = view;
+            maxSteps = Math.max(maxSteps, traces[i].getSteps());
+            
+            JPanel titled = new JPanel(new BorderLayout());
+            titled.setBorder(BorderFactory.createTitledBorder(traces[i].getAlgorithm()));
+            titled.add(view, BorderLayout.CENTER);
+            views.add(titled);
         }
-        updateUI();
+        gridPanel.add(views, BorderLayout.CENTER);
+        gridPanel.revalidate();
+        gridPanel.repaint();
+        
+        movingSlider = true;
+        stepSlider.setMaximum(maxSteps);
+        stepSlider.setValue(0);
+        movingSlider = false;
+        stepSlider.setEnabled(true);
+        showReplayStep(0);
+        
+        replayPosition = 0;
+        lastFrame = System.nanoTime();
+        replayTimer.start();
     }
     
-    private Tile findEndTile() {
-        for (Tile[] row : maze) {
-            for (Tile tile : row) {
-                if (tile.isEnd()) {
-                    return tile;
-                }
-            }
+    // one frame of a replay, moves on as many steps as the speed allows (straight to the end when unthrottled)
+    private void replayFrame() {
+        long now = System.nanoTime();
+        if (isUnthrottled())
+            replayPosition = stepSlider.getMaximum();
+        else
+            replayPosition += (now - lastFrame) * STEPS_PER_SECOND[speedDropdown.getSelectedIndex()] / 1e9;
+        lastFrame = now;
+        
+        if (replayPosition >= stepSlider.getMaximum()) {
+            replayPosition = stepSlider.getMaximum();
+            replayTimer.stop();
+        }
+        showReplayStep((int) replayPosition);
+    }
+    
+    // moves every player to the step and repaints the tiles that changed
+    private void showReplayStep(int step) {
+        StringBuilder counters = new StringBuilder("Counter: ");
+        for (int i = 0; i < players.length; i++) {
+            TracePlayer player = players[i];
+            MazeCanvas view = replayCanvases[i];
+            player.seek(step, cell -> view.setCellColor(cell, colorOf(player, cell)));
+            view.repaintDirty();
+            counters.append(i > 0 ? " / " : "").append(player.getCounter());
         }
-        return null;
+        counterLabel.setText(counters.toString());
+        
+        movingSlider = true;
+        stepSlider.setValue(step);
+        movingSlider = false;
     }
     
-    // Method to mark dead end tiles for visualization
-    public void markDeadEndTile(int row, int col) {
-        if (deadEndTiles == null) {
-            deadEndTiles = new boolean[maze.length][maze[0].length];
+    private void saveTrace() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Solve traces (.trace)", "trace"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION)
+            return;
+        
+        String filename = fileChooser.getSelectedFile().getAbsolutePath();
+        if (!filename.endsWith(SolveTrace.EXTENSION))
+            filename += SolveTrace.EXTENSION;
+        try {
+            lastTrace.save(filename);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Error saving trace: " + ex.getMessage(), 
+                                        "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+    
+    // asks for a trace file recorded on the loaded maze, null if there is none
+    private SolveTrace chooseTrace() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter("Solve traces (.trace)", "trace"));
+        if (fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION)
+            return null;
+        
+        try {
+            SolveTrace trace = SolveTrace.load(fileChooser.getSelectedFile().getAbsolutePath());
+            if (!trace.matches(maze)) {
+                JOptionPane.showMessageDialog(this, "The trace was recorded on a different maze.", 
+                                            "Error", JOptionPane.ERROR_MESSAGE);
+                return null;
+            }
+            return trace;
+        } catch (IOException | IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, "Error loading trace: " + ex.getMessage(), 
+                                        "Error", JOptionPane.ERROR_MESSAGE);
+            return null;
         }
-        deadEndTiles[row][col] = true;
     }
     
     // Main method for testing
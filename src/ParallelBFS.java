@@ -0,0 +1,315 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+// level synchronous BFS that spreads every level over a ForkJoinPool, used by MazeSolver.parallelBFS.
+// cells are claimed with a compare-and-set on a shared bitset, so each cell gets exactly one parent no matter
+// how many threads reach it, and the parents/distances are written into the solver's SearchContext as usual.
+// each level is either
+//   top-down:  the frontier is split between the workers, each one claims the unvisited neighbors of its cells
+//   bottom-up: every unvisited cell looks for a neighbor in the frontier (cheaper when the frontier is huge)
+// and we pick the direction per level depending on how big the frontier is compared to what is left to explore
+public class ParallelBFS {
+
+    // split work into chunks of about this many cells
+    private static final int CHUNK = 2048;
+
+    // go bottom-up once frontier * ALPHA is more than the open cells left (direction optimizing BFS)
+    private static final int ALPHA = 14;
+
+    // random draws a teleport makes before falling back to scanning for a free cell
+    private static final int TELEPORT_DRAWS = 64;
+
+    private final MazeGrid maze;
+    private final SearchContext context;
+
+    // one bit per cell, set once a worker has claimed the cell
+    private final AtomicLongArray claimed;
+
+    // the cells of the current level and the next level being filled (each cell is claimed once, so size n is enough)
+    private int[] frontier;
+    private int frontierSize;
+    private int[] nextFrontier;
+    private final AtomicInteger nextSize = new AtomicInteger();
+
+    // frontier membership for bottom-up levels, only written between levels
+    private final long[] frontierBits;
+
+    // counter changes of the running level (one per expanded cell plus the counter tile effects)
+    private final AtomicInteger counterDelta = new AtomicInteger();
+    private volatile boolean foundEnd;
+    private int level;
+    private long expanded;
+    private int bottomUpLevels;
+
+    // open tiles of the maze, counted again only after a wall edit (MazeGrid.getModCount() changed)
+    private int openCells;
+    private int modCount = -1;
+
+    // where a worker collects the cells it found in a chunk before publishing them, one per thread shared by every
+    // search. a top-down chunk finds at most CHUNK * 4 cells (4 neighbors each), a bottom-up chunk at most
+    // CHUNK * 8 (one per cell it looks at), and a chunk is done before its worker starts the next one
+    private static final ThreadLocal<int[]> FOUND = ThreadLocal.withInitial(() -> new int[CHUNK * 8]);
+
+    public ParallelBFS(MazeGrid maze, SearchContext context) {
+        this.maze = maze;
+        this.context = context;
+        int words = (maze.size() + 63) >>> 6;
+        this.claimed = new AtomicLongArray(words);
+        this.frontierBits = new long[words];
+        this.frontier = new int[maze.size()];
+        this.nextFrontier = new int[maze.size()];
+    }
+
+    // runs the search from start until end is reached or nothing is left, onLevel gets the counter change of
+    // every finished level (so the caller can update the UI once per level instead of once per cell).
+    // the context must already be reset, returns true if end was reached. a search can be run again and again,
+    // it only clears its claimed bits instead of allocating everything anew
+    public boolean run(ForkJoinPool pool, int start, int end, IntConsumer onLevel) {
+        if (modCount != maze.getModCount()) {
+            openCells = 0;
+            for (int cell = 0; cell < maze.size(); cell++) {
+                if (!maze.isWall(cell))
+                    openCells++;
+            }
+            modCount = maze.getModCount();
+        }
+        for (int i = 0; i < claimed.length(); i++) {
+            claimed.set(i, 0);
+        }
+        expanded = 0;
+        bottomUpLevels = 0;
+
+        claim(start);
+        context.markVisited(start);
+        context.setDistance(start, 0);
+        frontier[0] = start;
+        frontierSize = 1;
+        int explored = 1;
+        foundEnd = start == end;
+        level = 0;
+
+        while (frontierSize > 0 && !foundEnd) {
+            expanded += frontierSize;
+            nextSize.set(0);
+            counterDelta.set(0);
+
+            boolean bottomUp = (long) frontierSize * ALPHA > openCells - explored;
+            if (bottomUp) {
+                bottomUpLevels++;
+                for (int i = 0; i < frontierSize; i++) {
+                    frontierBits[frontier[i] >>> 6] |= 1L << frontier[i];
+                }
+                // the frontier still has to be expanded for the counter and for teleports, just without neighbor scans
+                pool.invoke(new TopDown(0, frontierSize, false));
+                pool.invoke(new BottomUp(0, maze.size()));
+                for (int i = 0; i < frontierSize; i++) {
+                    frontierBits[frontier[i] >>> 6] = 0;
+                }
+            } else {
+                pool.invoke(new TopDown(0, frontierSize, true));
+            }
+
+            // the next level becomes the frontier, the old frontier array is reused for the level after
+            int size = nextSize.get();
+            int[] swap = frontier;
+            frontier = nextFrontier;
+            nextFrontier = swap;
+            frontierSize = size;
+            explored += size;
+            level++;
+
+            if (onLevel != null)
+                onLevel.accept(counterDelta.get());
+        }
+
+        return foundEnd;
+    }
+
+    // number of cells expanded by the last run
+    public long getExpanded() {
+        return expanded;
+    }
+
+    // levels of the last run that went bottom-up
+    public int getBottomUpLevels() {
+        return bottomUpLevels;
+    }
+
+    // the cells the level that just finished reached (the next frontier), for onLevel to look at
+    public int getFrontierSize() {
+        return frontierSize;
+    }
+
+    public int getFrontierCell(int i) {
+        return frontier[i];
+    }
+
+    // atomically takes the cell, returns false if another worker already has it
+    private boolean claim(int cell) {
+        int word = cell >>> 6;
+        long bit = 1L << cell;
+        while (true) {
+            long current = claimed.get(word);
+            if ((current & bit) != 0)
+                return false;
+            if (claimed.compareAndSet(word, current, current | bit))
+                return true;
+        }
+    }
+
+    private boolean isClaimed(int cell) {
+        return (claimed.get(cell >>> 6) & (1L << cell)) != 0;
+    }
+
+    // only the worker that claimed the cell gets here, so these writes never race
+    private void record(int cell, int parentCell, int[] found, int count) {
+        context.markVisited(cell);
+        context.setParent(cell, parentCell);
+        context.setDistance(cell, level + 1);
+        found[count] = cell;
+        if (maze.isEnd(cell))
+            foundEnd = true;
+    }
+
+    // copies a worker's discovered cells into the shared next frontier with a single reservation
+    private void publish(int[] found, int count) {
+        if (count > 0) {
+            int at = nextSize.getAndAdd(count);
+            System.arraycopy(found, 0, nextFrontier, at, count);
+        }
+    }
+
+    // a random free open cell for a teleport, like the sequential version it tries random cells first,
+    // but instead of looping forever it then scans from a random cell, and gives -1 if nothing is free
+    private int claimTeleportTarget() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int size = maze.size();
+        for (int i = 0; i < TELEPORT_DRAWS; i++) {
+            int cell = random.nextInt(size);
+            if (!maze.isWall(cell) && claim(cell))
+                return cell;
+        }
+        int from = random.nextInt(size);
+        for (int i = 0; i < size; i++) {
+            int cell = from + i < size ? from + i : from + i - size;
+            if (!maze.isWall(cell) && claim(cell))
+                return cell;
+        }
+        return -1;
+    }
+
+    // expands frontier[from, to), splitting it in halves until the chunks are small
+    private class TopDown extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final boolean scanNeighbors;
+
+        TopDown(int from, int to, boolean scanNeighbors) {
+            this.from = from;
+            this.to = to;
+            this.scanNeighbors = scanNeighbors;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new TopDown(from, middle, scanNeighbors), new TopDown(middle, to, scanNeighbors));
+                return;
+            }
+
+            // every expanded cell finds at most 4 new cells (a teleport finds 1)
+            int[] found = FOUND.get();
+            int count = 0;
+            int delta = 0;
+
+            for (int i = from; i < to; i++) {
+                int current = frontier[i];
+                delta++;
+
+                switch (maze.getCell(current)) {
+                    case MazeGrid.COUNTER_UP:
+                        delta += 50;
+                        break;
+                    case MazeGrid.COUNTER_DOWN:
+                        delta -= 50;
+                        break;
+                    case MazeGrid.TELEPORT:
+                        // a teleport only leads to its random target, never to its neighbors
+                        int target = claimTeleportTarget();
+                        if (target != -1)
+                            record(target, current, found, count++);
+                        continue;
+                    default:
+                        break;
+                }
+
+                if (!scanNeighbors)
+                    continue;
+
+                int open = maze.openDirections(current);
+                for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                    if ((open & (1 << d)) == 0) continue;
+                    int neighbor = maze.neighbor(current, d);
+                    if (!isClaimed(neighbor) && claim(neighbor))
+                        record(neighbor, current, found, count++);
+                }
+            }
+
+            publish(found, count);
+            counterDelta.addAndGet(delta);
+        }
+    }
+
+    // looks at cells [from, to), every unclaimed open cell with a (non teleport) neighbor in the frontier joins the next level
+    private class BottomUp extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        BottomUp(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK * 8) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BottomUp(from, middle), new BottomUp(middle, to));
+                return;
+            }
+
+            int[] found = FOUND.get();
+            int count = 0;
+
+            for (int cell = from; cell < to; cell++) {
+                if (maze.isWall(cell) || isClaimed(cell)) continue;
+
+                int open = maze.openDirections(cell);
+                for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                    if ((open & (1 << d)) == 0) continue;
+                    int neighbor = maze.neighbor(cell, d);
+                    if ((frontierBits[neighbor >>> 6] & (1L << neighbor)) != 0
+                            && maze.getCell(neighbor) != MazeGrid.TELEPORT) {
+                        // nothing else can claim this cell now: the top-down pass of this level has finished
+                        // (its teleport targets were skipped by isClaimed above) and every worker owns its own
+                        // cells. claim() still needs its CAS since the workers next to us set bits in the same word
+                        if (claim(cell))
+                            record(cell, neighbor, found, count++);
+                        break;
+                    }
+                }
+            }
+
+            publish(found, count);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// dead end filling spread over a ForkJoinPool, used by MazeSolver.parallelDeadEndFill.
+// the grid is cut into bands of whole rows and every band runs the same worklist fill as MazeSolver.fillDeadEnds
+// on its own tiles, with its own degree counters and worklist, so the workers never write the same tile.
+// a dead end next to another band can't lower that band's counter itself, it sends the neighbor's cell id to
+// the band instead (only the first and last row of a band have neighbors outside of it). we work in rounds:
+// every band takes the messages of the last round, fills until its worklist is empty and sends new messages,
+// and we stop after a round without messages.
+// marking a dead end only ever lowers counters, so no matter in which order the bands mark their tiles we end up
+// with exactly the same dead ends as the sequential fill
+public class ParallelDeadEndFill {
+
+    // bands are at least this many rows high, thinner ones spend most of their time on messages
+    private static final int MIN_BAND_ROWS = 16;
+
+    // split into about this many bands per worker, so a worker that finishes early can take another band
+    private static final int BANDS_PER_WORKER = 4;
+
+    private final MazeGrid maze;
+    private final boolean[] isDeadEnd;
+    private final byte[] degree;
+    private Band[] bands;
+    private int rounds;
+
+    public ParallelDeadEndFill(MazeGrid maze) {
+        this.maze = maze;
+        this.isDeadEnd = new boolean[maze.size()];
+        this.degree = new byte[maze.size()];
+    }
+
+    // fills the whole maze and returns the dead end flags, indexed by cell id
+    public boolean[] run(ForkJoinPool pool) {
+        int rows = maze.getRows();
+        int bandRows = Math.max(MIN_BAND_ROWS, (rows + pool.getParallelism() * BANDS_PER_WORKER - 1) / (pool.getParallelism() * BANDS_PER_WORKER));
+        bands = new Band[(rows + bandRows - 1) / bandRows];
+        for (int b = 0; b < bands.length; b++) {
+            bands[b] = new Band(b * bandRows, Math.min(rows, (b + 1) * bandRows));
+        }
+
+        rounds = 0;
+        boolean sent = true;
+        while (sent) {
+            pool.invoke(new Round(0, bands.length, rounds == 0));
+            rounds++;
+
+            // this round's messages are read in the next one, the join above makes them visible to every worker
+            sent = false;
+            for (Band band : bands) {
+                sent |= band.upCount > 0 || band.downCount > 0;
+                band.swapMessages();
+            }
+        }
+        return isDeadEnd;
+    }
+
+    // number of tiles marked as dead ends by the last run
+    public int getDeadEnds() {
+        int deadEnds = 0;
+        for (Band band : bands) {
+            deadEnds += band.deadEnds;
+        }
+        return deadEnds;
+    }
+
+    // rounds the last run needed until no band had anything to tell its neighbors
+    public int getRounds() {
+        return rounds;
+    }
+
+    private boolean canFill(int cell) {
+        byte type = maze.getCell(cell);
+        return type != MazeGrid.WALL && type != MazeGrid.START && type != MazeGrid.END;
+    }
+
+    // runs one round on bands[from, to), splitting them in halves
+    private class Round extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final boolean first;
+
+        Round(int from, int to, boolean first) {
+            this.from = from;
+            this.to = to;
+            this.first = first;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Round(from, middle, first), new Round(middle, to, first));
+                return;
+            }
+            if (first)
+                bands[from].seed();
+            else
+                bands[from].receive(from > 0 ? bands[from - 1] : null, from + 1 < bands.length ? bands[from + 1] : null);
+        }
+    }
+
+    // rows [firstRow, lastRow) of the maze, only the worker running this band touches their flags and counters
+    private class Band {
+        private final int firstCell;
+        private final int lastCell;
+        private final int cols;
+
+        // every tile of the band goes on the worklist at most once
+        private final int[] worklist;
+        private int tail;
+        private int deadEnds;
+
+        // neighbors in the band above / below that lost a walkable neighbor this round, and the ones from
+        // the last round that the neighboring bands are reading now. at most one per column, a tile only dies once
+        private int[] up;
+        private int[] down;
+        private int upCount;
+        private int downCount;
+        private int[] sentUp;
+        private int[] sentDown;
+        private int sentUpCount;
+        private int sentDownCount;
+
+        Band(int firstRow, int lastRow) {
+            this.cols = maze.getCols();
+            this.firstCell = firstRow * cols;
+            this.lastCell = lastRow * cols;
+            this.worklist = new int[lastCell - firstCell];
+            this.up = new int[cols];
+            this.down = new int[cols];
+            this.sentUp = new int[cols];
+            this.sentDown = new int[cols];
+        }
+
+        // first round: counts the walkable neighbors of our tiles and fills from the ones that are already dead ends
+        void seed() {
+            for (int cell = firstCell; cell < lastCell; cell++) {
+                if (!canFill(cell))
+                    continue;
+                degree[cell] = (byte) Integer.bitCount(maze.openDirections(cell));
+                if (degree[cell] <= 1)
+                    mark(cell);
+            }
+            fill();
+        }
+
+        // later rounds: the tiles the bands above and below sent us lost a neighbor, then we fill from there
+        void receive(Band above, Band below) {
+            if (above != null) {
+                for (int i = 0; i < above.sentDownCount; i++) {
+                    lowerDegree(above.sentDown[i]);
+                }
+            }
+            if (below != null) {
+                for (int i = 0; i < below.sentUpCount; i++) {
+                    lowerDegree(below.sentUp[i]);
+                }
+            }
+            fill();
+        }
+
+        private void fill() {
+            int head = 0;
+            while (head < tail) {
+                int cell = worklist[head++];
+                int open = maze.openDirections(cell);
+                for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                    if ((open & (1 << d)) == 0) continue;
+                    int neighbor = maze.neighbor(cell, d);
+                    // we can't look at another band's tiles, it checks them itself when it gets the message
+                    if (neighbor < firstCell)
+                        up[upCount++] = neighbor;
+                    else if (neighbor >= lastCell)
+                        down[downCount++] = neighbor;
+                    else
+                        lowerDegree(neighbor);
+                }
+            }
+            tail = 0;
+        }
+
+        private void lowerDegree(int cell) {
+            if (isDeadEnd[cell] || !canFill(cell))
+                return;
+            if (--degree[cell] <= 1)
+                mark(cell);
+        }
+
+        private void mark(int cell) {
+            isDeadEnd[cell] = true;
+            deadEnds++;
+            worklist[tail++] = cell;
+        }
+
+        // called between rounds, what we sent becomes readable and we start the next round with empty outboxes
+        void swapMessages() {
+            int[] swap = sentUp;
+            sentUp = up;
+            up = swap;
+            sentUpCount = upCount;
+            upCount = 0;
+
+            swap = sentDown;
+            sentDown = down;
+            down = swap;
+            sentDownCount = downCount;
+            downCount = 0;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+// the per-solve search state (visited flags and parent links) kept outside of the maze itself.
+// the solvers only read the grid, so several of them, each with its own context, can work on the same MazeGrid at the
+// same time (edits with MazeGrid.setWall must wait until they're done)
+public class SearchContext {
+
+    // visited is stored as a stamp per cell: a cell counts as visited only if its stamp equals the current epoch,
+    // this way resetting the context is just epoch++ instead of wiping the whole array
+    private final int[] visitedStamp;
+    private final int[] parent;
+    private int epoch;
+
+    // best known cost from the start for each cell (gScore in A*, distance in Dijkstra), UNSEEN if we have none yet.
+    // like parent it is only trusted for cells visited in the current epoch, so it is reset lazily too
+    public static final int UNSEEN = Integer.MAX_VALUE;
+    private final int[] distance;
+
+    // free tiles for teleports (only on mazes that have teleports), every tile we visit is taken out of it
+    private TeleportTargets teleportTargets;
+
+    // told about every newly visited cell, so the UI can show it (see MazeSolver.setListener)
+    private SolverListener listener;
+
+    public SearchContext(int size) {
+        this.visitedStamp = new int[size];
+        this.parent = new int[size];
+        this.distance = new int[size];
+        this.epoch = 1;
+    }
+
+    public SearchContext(MazeGrid maze) {
+        this(maze.size());
+    }
+
+    public void setTeleportTargets(TeleportTargets teleportTargets) {
+        this.teleportTargets = teleportTargets;
+    }
+
+    public TeleportTargets getTeleportTargets() {
+        return teleportTargets;
+    }
+
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    public SolverListener getListener() {
+        return listener;
+    }
+
+    // starts a new solve, O(1) except once every ~2 billion resets when the stamps wrap around
+    // (and the teleport targets, they give back the tiles the last solve took)
+    public void reset() {
+        if (teleportTargets != null)
+            teleportTargets.reset();
+        epoch++;
+        if (epoch == Integer.MAX_VALUE) {
+            java.util.Arrays.fill(visitedStamp, 0);
+            epoch = 1;
+        }
+    }
+
+    public boolean isVisited(int cell) {
+        return visitedStamp[cell] == epoch;
+    }
+
+    // marks the cell as visited in this solve, a freshly visited cell has no parent and no distance
+    // until setParent / setDistance are called
+    public void markVisited(int cell) {
+        if (visitedStamp[cell] != epoch) {
+            visitedStamp[cell] = epoch;
+            parent[cell] = -1;
+            distance[cell] = UNSEEN;
+            if (teleportTargets != null)
+                teleportTargets.remove(cell);
+            if (listener != null)
+                listener.visited(cell);
+        }
+    }
+
+    // parent cell for backtracking after solving, only meaningful for visited cells
+    public void setParent(int cell, int parentCell) {
+        parent[cell] = parentCell;
+    }
+
+    public int getParent(int cell) {
+        return visitedStamp[cell] == epoch ? parent[cell] : -1;
+    }
+
+    public void setDistance(int cell, int cost) {
+        distance[cell] = cost;
+    }
+
+    public int getDistance(int cell) {
+        return visitedStamp[cell] == epoch ? distance[cell] : UNSEEN;
+    }
+
+    public int size() {
+        return parent.length;
+    }
+}
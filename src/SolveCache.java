@@ -0,0 +1,446 @@
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+// remembers solve results so the same maze isn't solved again and again by a long running service.
+// a result is keyed by the maze's content hash (so two copies of the same file share it) plus the algorithm and
+// the two end points, and keeps the path as cell ids, whether the end was found, the counter and the expansions.
+//
+//   SolveCache cache = new SolveCache(64 << 20);              // at most ~64MB of results in memory
+//   SolveCache.Result result = cache.solve("Mazes/maze1.txt", "AStar");
+//
+// memory is bounded by the size of the stored paths, the least recently used results are evicted first
+// (and by MAX_FILES for what we remember about the maze files themselves).
+// with a directory every result is also written to disk, a result that isn't in memory (evicted, or from an
+// earlier run) is read back from there. the disk tier has no size limit, delete the directory to clear it.
+//
+// teleports jump to a random tile, so the same maze can give a different result every time. the TeleportPolicy
+// decides what happens to those mazes: BYPASS always solves them (the default), SEEDED caches them per solver
+// seed (see MazeSolver.setSeed, a seeded solver makes the same teleports every time) and bypasses unseeded
+// solvers. parallelBFS draws its teleports on several threads, it's never cached on a maze with teleports.
+// point to point queries treat teleports as floor, they are always cached
+public class SolveCache {
+
+    public enum TeleportPolicy { BYPASS, SEEDED }
+
+    // the algorithm name used for the keys of point to point queries
+    private static final String QUERY = "query";
+
+    private static final int MAGIC = 0x4D5A5243;     // "MZRC"
+    private static final int VERSION = 1;
+
+    // rough size of a result besides its path, used for the memory bound
+    private static final long ENTRY_OVERHEAD = 128;
+
+    // how many maze files solve(filename, ...) remembers, the least recently used one is forgotten first
+    // (it's only loaded again on its next solve)
+    static final int MAX_FILES = 4096;
+
+    // what a solve produced, the path goes from the start to the end (empty if nothing was found)
+    public static final class Result {
+        private final boolean found;
+        private final int[] path;
+        private final int counter;
+        private final long expansions;
+
+        Result(boolean found, int[] path, int counter, long expansions) {
+            this.found = found;
+            this.path = path;
+            this.counter = counter;
+            this.expansions = expansions;
+        }
+
+        public boolean isFound() {
+            return found;
+        }
+
+        // cell ids of the path, use MazeGrid.tileAt (or getPath) to turn them into tiles
+        public int[] getCells() {
+            return path.clone();
+        }
+
+        public List<Tile> getPath(MazeGrid maze) {
+            List<Tile> tiles = new ArrayList<>(path.length);
+            for (int cell : path) {
+                tiles.add(maze.tileAt(cell));
+            }
+            return tiles;
+        }
+
+        public int getPathLength() {
+            return path.length;
+        }
+
+        public int getCounter() {
+            return counter;
+        }
+
+        public long getExpansions() {
+            return expansions;
+        }
+
+        private long bytes() {
+            return ENTRY_OVERHEAD + 4L * path.length;
+        }
+    }
+
+    private static final class Key {
+        final long hash;
+        final String algorithm;
+        final int from;
+        final int to;
+        final boolean seeded;
+        final long seed;
+
+        Key(long hash, String algorithm, int from, int to, boolean seeded, long seed) {
+            this.hash = hash;
+            this.algorithm = algorithm;
+            this.from = from;
+            this.to = to;
+            this.seeded = seeded;
+            this.seed = seed;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key))
+                return false;
+            Key other = (Key) o;
+            return hash == other.hash && from == other.from && to == other.to && seeded == other.seeded
+                && seed == other.seed && algorithm.equals(other.algorithm);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hash, algorithm, from, to, seeded, seed);
+        }
+
+        // every field is in the name, so two keys never share a file
+        String fileName() {
+            return String.format("%016x-%s-%d-%d%s.path", hash, algorithm, from, to, seeded ? "-s" + seed : "");
+        }
+    }
+
+    // the maze files we know, in access order and at most MAX_FILES of them
+    private static final class FileTable extends LinkedHashMap<String, FileInfo> {
+        private static final long serialVersionUID = 1L;
+
+        FileTable() {
+            super(16, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FileInfo> eldest) {
+            return size() > MAX_FILES;
+        }
+    }
+
+    // what we know about a maze file from an earlier solve, so a file that didn't change isn't even loaded on a hit
+    private static final class FileInfo {
+        final long length;
+        final long modified;
+        final long hash;
+        final int start;
+        final int end;
+        final boolean teleports;
+
+        FileInfo(long length, long modified, long hash, int start, int end, boolean teleports) {
+            this.length = length;
+            this.modified = modified;
+            this.hash = hash;
+            this.start = start;
+            this.end = end;
+            this.teleports = teleports;
+        }
+    }
+
+    private final long maxBytes;
+    private final File directory;
+    private TeleportPolicy teleportPolicy = TeleportPolicy.BYPASS;
+
+    // access ordered, so iterating starts at the least recently used result
+    private final LinkedHashMap<Key, Result> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final FileTable files = new FileTable();
+    private long bytes;
+
+    private long hits;
+    private long diskHits;
+    private long misses;
+    private long evictions;
+    private long bypasses;
+
+    public SolveCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    // directory can be null for a memory only cache, it's created if it doesn't exist
+    public SolveCache(long maxBytes, File directory) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("The memory limit can't be negative.");
+        }
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Can't create the cache directory " + directory);
+        }
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+    }
+
+    public synchronized void setTeleportPolicy(TeleportPolicy teleportPolicy) {
+        this.teleportPolicy = teleportPolicy;
+    }
+
+    // loads and solves a maze file, unless we already have the result for this content.
+    // a file we've seen before (same size and modification time) isn't loaded again for a hit
+    public Result solve(String filename, String algorithm) throws IOException {
+        File file = new File(filename);
+        String path = file.getCanonicalPath();
+        long length = file.length();
+        long modified = file.lastModified();
+
+        FileInfo info;
+        synchronized (this) {
+            info = files.get(path);
+        }
+        Key key = null;
+        if (info != null && info.length == length && info.modified == modified
+                && !bypass(info.teleports, algorithm, false)) {
+            key = new Key(info.hash, algorithm, info.start, info.end, false, 0);
+            Result result = lookup(key);
+            if (result != null)
+                return result;
+        }
+
+        MazeGrid maze = MazeFile.load(filename);
+        MazeSolver solver = new MazeSolver(maze);
+        solver.setVerbose(false);
+        synchronized (this) {
+            files.put(path, new FileInfo(length, modified, maze.contentHash(), maze.getStart(), maze.getEnd(),
+                maze.getTeleportCount() > 0));
+        }
+
+        // the miss is already counted
+        if (key != null) {
+            Result result = run(solver, algorithm);
+            store(key, result);
+            return result;
+        }
+        return solve(solver, algorithm);
+    }
+
+    // runs the algorithm from the maze's start to its end on this solver, or returns the cached result.
+    // after a miss the solver holds the search as usual, after a hit it's left untouched
+    public Result solve(MazeSolver solver, String algorithm) {
+        MazeGrid maze = solver.getMaze();
+        if (bypass(maze.getTeleportCount() > 0, algorithm, solver.isSeeded())) {
+            synchronized (this) {
+                bypasses++;
+            }
+            return run(solver, algorithm);
+        }
+
+        Key key = key(solver, algorithm, maze.getStart(), maze.getEnd());
+        Result result = lookup(key);
+        if (result == null) {
+            result = run(solver, algorithm);
+            store(key, result);
+        }
+        return result;
+    }
+
+    // point to point query (see MazeSolver.solve(fromRow, fromCol, toRow, toCol)), or its cached result
+    public Result solve(MazeSolver solver, int fromRow, int fromCol, int toRow, int toCol) {
+        MazeGrid maze = solver.getMaze();
+        if (!maze.inBounds(fromRow, fromCol) || !maze.inBounds(toRow, toCol)) {
+            throw new IllegalArgumentException("The query goes outside of the maze.");
+        }
+        // the same key for every solver, teleports don't matter here
+        Key key = new Key(maze.contentHash(), QUERY, maze.index(fromRow, fromCol), maze.index(toRow, toCol), false, 0);
+        Result result = lookup(key);
+        if (result == null) {
+            boolean found = solver.solve(fromRow, fromCol, toRow, toCol);
+            result = result(solver, found, maze.tileAt(toRow, toCol));
+            store(key, result);
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        files.clear();
+        bytes = 0;
+    }
+
+    // number of results in memory and their estimated size
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    // number of maze files we remember the content hash of
+    synchronized int knownFiles() {
+        return files.size();
+    }
+
+    // hits counts both memory and disk hits, getDiskHits is the part that came from disk
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getDiskHits() {
+        return diskHits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    // solves that skipped the cache because of the teleport policy
+    public synchronized long getBypasses() {
+        return bypasses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SolveCache[" + entries.size() + " results, " + bytes + " bytes, hits=" + hits + " (disk " + diskHits
+            + "), misses=" + misses + ", evictions=" + evictions + ", bypasses=" + bypasses + "]";
+    }
+
+    private boolean bypass(boolean teleports, String algorithm, boolean seeded) {
+        if (!teleports)
+            return false;
+        synchronized (this) {
+            return teleportPolicy == TeleportPolicy.BYPASS || !seeded || algorithm.equals("parallelBFS");
+        }
+    }
+
+    private Key key(MazeSolver solver, String algorithm, int from, int to) {
+        // the seed only matters when it changes the teleports
+        boolean seeded = solver.isSeeded() && solver.getMaze().getTeleportCount() > 0;
+        return new Key(solver.getMaze().contentHash(), algorithm, from, to, seeded, seeded ? solver.getSeed() : 0);
+    }
+
+    private static Result run(MazeSolver solver, String algorithm) {
+        solver.resetMaze();
+        boolean found = solver.solve(algorithm);
+        return result(solver, found, solver.getEnd());
+    }
+
+    private static Result result(MazeSolver solver, boolean found, Tile end) {
+        int[] path = new int[0];
+        if (found) {
+            MazeGrid maze = solver.getMaze();
+            List<Tile> tiles = solver.reconstructPath(end);
+            path = new int[tiles.size()];
+            for (int i = 0; i < path.length; i++) {
+                path[i] = maze.index(tiles.get(i).getRow(), tiles.get(i).getCol());
+            }
+        }
+        return new Result(found, path, solver.getCounter().value, solver.getExpansions());
+    }
+
+    // memory first, then disk, counts the hit or miss
+    private Result lookup(Key key) {
+        synchronized (this) {
+            Result result = entries.get(key);
+            if (result != null) {
+                hits++;
+                return result;
+            }
+        }
+
+        Result result = directory != null ? readFile(key) : null;
+        synchronized (this) {
+            if (result == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+            diskHits++;
+            put(key, result);
+        }
+        return result;
+    }
+
+    private void store(Key key, Result result) {
+        synchronized (this) {
+            put(key, result);
+        }
+        if (directory != null)
+            writeFile(key, result);
+    }
+
+    // adds the result and evicts the least recently used ones until we're under the limit again.
+    // a result bigger than the whole limit is only kept on disk
+    private void put(Key key, Result result) {
+        if (result.bytes() > maxBytes)
+            return;
+        Result old = entries.put(key, result);
+        if (old != null)
+            bytes -= old.bytes();
+        bytes += result.bytes();
+
+        Iterator<Result> eldest = entries.values().iterator();
+        while (bytes > maxBytes) {
+            bytes -= eldest.next().bytes();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private Result readFile(Key key) {
+        File file = new File(directory, key.fileName());
+        if (!file.isFile())
+            return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != key.hash)
+                throw new IOException("Not a cached result");
+            boolean found = in.readBoolean();
+            int counter = in.readInt();
+            long expansions = in.readLong();
+            int length = in.readInt();
+            if (length < 0 || length > file.length() / 4)
+                throw new IOException("Bad path length");
+            int[] path = new int[length];
+            for (int i = 0; i < length; i++) {
+                path[i] = in.readInt();
+            }
+            return new Result(found, path, counter, expansions);
+        } catch (IOException e) {
+            // a broken or truncated file is just a miss, it's replaced by the next store
+            file.delete();
+            return null;
+        }
+    }
+
+    // written to a temporary file first and moved in place, so another process never sees half a result
+    private void writeFile(Key key, Result result) {
+        File file = new File(directory, key.fileName());
+        try {
+            File temp = File.createTempFile("result", ".tmp", directory);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(key.hash);
+                out.writeBoolean(result.found);
+                out.writeInt(result.counter);
+                out.writeLong(result.expansions);
+                out.writeInt(result.path.length);
+                for (int cell : result.path) {
+                    out.writeInt(cell);
+                }
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // the disk tier is only an extra, the result is still in memory
+            System.err.println("Couldn't write cached result " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,207 @@
+import java.io.*;
+
+// everything a solve showed in the UI (the events of a SolverListener) packed into a byte array, so the search can
+// be replayed and scrubbed through later without running the solver again (see TraceRecorder and TracePlayer).
+// every event is one varint: the event type in the low 2 bits and above it the difference to the last cell
+// (visited, dead end, path) or to the last counter (step), zigzag encoded so small negative differences stay small.
+// most events are next to the one before, so an event usually takes 1 or 2 bytes instead of the 8 of a StepBuffer.
+// every KEYFRAME_STEPS steps the trace remembers where in the bytes it was and the last cell and counter there,
+// decoding can start at any of these keyframes instead of at the beginning.
+// a trace can be saved and loaded again, it remembers the maze's content hash to check it's replayed on the same maze
+public class SolveTrace {
+
+    public static final int KEYFRAME_STEPS = 1024;
+    public static final String EXTENSION = ".trace";
+
+    static final int VISITED = 0;
+    static final int DEAD_END = 1;
+    static final int PATH = 2;
+    static final int STEP = 3;
+
+    private static final int MAGIC = 0x4D5A5452;     // "MZTR"
+    private static final int VERSION = 1;
+
+    private final String algorithm;
+    private final int rows;
+    private final int cols;
+    private final long contentHash;
+    private final byte[] data;
+    private final int length;
+    private final int steps;
+    private final long events;
+
+    // keyframe i is at step i * KEYFRAME_STEPS: where its events start and the last cell and counter before them
+    private final int[] keyframeOffsets;
+    private final int[] keyframeCells;
+    private final int[] keyframeCounters;
+
+    SolveTrace(String algorithm, int rows, int cols, long contentHash, byte[] data, int length, int steps, long events,
+               int[] keyframeOffsets, int[] keyframeCells, int[] keyframeCounters) {
+        this.algorithm = algorithm;
+        this.rows = rows;
+        this.cols = cols;
+        this.contentHash = contentHash;
+        this.data = data;
+        this.length = length;
+        this.steps = steps;
+        this.events = events;
+        this.keyframeOffsets = keyframeOffsets;
+        this.keyframeCells = keyframeCells;
+        this.keyframeCounters = keyframeCounters;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    // number of step events, a player can be at any step from 0 to this
+    public int getSteps() {
+        return steps;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public int getSizeInBytes() {
+        return length;
+    }
+
+    public boolean matches(MazeGrid maze) {
+        return maze.getRows() == rows && maze.getCols() == cols && maze.contentHash() == contentHash;
+    }
+
+    // keyframe i is written when step i * KEYFRAME_STEPS + 1 starts, so a trace ending right on a keyframe step
+    // doesn't have that keyframe (there is nothing after it)
+    static int keyframes(int steps) {
+        return steps == 0 ? 1 : (steps - 1) / KEYFRAME_STEPS + 1;
+    }
+
+    // a cursor at the start of keyframe i (the last one for a later i)
+    Cursor cursorAt(int keyframe) {
+        keyframe = Math.min(keyframe, keyframeOffsets.length - 1);
+        Cursor cursor = new Cursor();
+        cursor.offset = keyframeOffsets[keyframe];
+        cursor.cell = keyframeCells[keyframe];
+        cursor.counter = keyframeCounters[keyframe];
+        cursor.steps = keyframe * KEYFRAME_STEPS;
+        return cursor;
+    }
+
+    // reads the events one by one: peek() decodes the next one into type and value (the cell, or the counter for
+    // a step) and advance() moves past it
+    class Cursor {
+        int offset;
+        int cell;
+        int counter;
+        int steps;
+
+        int type;
+        int value;
+        private int next;
+
+        // false at the end of the trace
+        boolean peek() {
+            if (offset >= length)
+                return false;
+            long token = 0;
+            int shift = 0;
+            int i = offset;
+            byte b;
+            do {
+                b = data[i++];
+                token |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            next = i;
+
+            type = (int) (token & 3);
+            long zigzag = token >>> 2;
+            long delta = (zigzag >>> 1) ^ -(zigzag & 1);
+            value = (int) ((type == STEP ? counter : cell) + delta);
+            return true;
+        }
+
+        void advance() {
+            if (type == STEP) {
+                counter = value;
+                steps++;
+            } else {
+                cell = value;
+            }
+            offset = next;
+        }
+
+        Cursor copy() {
+            Cursor copy = new Cursor();
+            copy.offset = offset;
+            copy.cell = cell;
+            copy.counter = counter;
+            copy.steps = steps;
+            return copy;
+        }
+    }
+
+    public void save(String filename) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rows);
+            out.writeInt(cols);
+            out.writeLong(contentHash);
+            out.writeUTF(algorithm);
+            out.writeInt(steps);
+            out.writeLong(events);
+            out.writeInt(keyframeOffsets.length);
+            for (int i = 0; i < keyframeOffsets.length; i++) {
+                out.writeInt(keyframeOffsets[i]);
+                out.writeInt(keyframeCells[i]);
+                out.writeInt(keyframeCounters[i]);
+            }
+            out.writeInt(length);
+            out.write(data, 0, length);
+        }
+    }
+
+    public static SolveTrace load(String filename) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename), 1 << 16))) {
+            if (in.readInt() != MAGIC)
+                throw new IllegalArgumentException("Not a solve trace file: " + filename);
+            if (in.readInt() != VERSION)
+                throw new IllegalArgumentException("Unsupported solve trace version: " + filename);
+            int rows = in.readInt();
+            int cols = in.readInt();
+            long contentHash = in.readLong();
+            String algorithm = in.readUTF();
+            int steps = in.readInt();
+            long events = in.readLong();
+
+            int keyframes = in.readInt();
+            if (rows < 1 || cols < 1 || steps < 0 || keyframes != keyframes(steps))
+                throw new IllegalArgumentException("Corrupt solve trace: " + filename);
+            int[] offsets = new int[keyframes];
+            int[] cells = new int[keyframes];
+            int[] counters = new int[keyframes];
+            for (int i = 0; i < keyframes; i++) {
+                offsets[i] = in.readInt();
+                cells[i] = in.readInt();
+                counters[i] = in.readInt();
+            }
+
+            int length = in.readInt();
+            if (length < 0 || offsets[keyframes - 1] > length)
+                throw new IllegalArgumentException("Corrupt solve trace: " + filename);
+            byte[] data = new byte[length];
+            in.readFully(data);
+            return new SolveTrace(algorithm, rows, cols, contentHash, data, length, steps, events, offsets, cells, counters);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+// gets told what a solve does, step by step (see MazeSolver.setListener), the UI uses it to show the search.
+// everything is called on the solver's thread while it runs, so an implementation should be quick
+// (StepBuffer just queues the events for the UI)
+public interface SolverListener {
+
+    // the cell was visited for the first time in this solve
+    void visited(int cell);
+
+    // dead end filling marked the cell as a dead end
+    void deadEnd(int cell);
+
+    // the cell is on the path that was found
+    void path(int cell);
+
+    // one step is done, counter is the step counter after it
+    void step(int counter);
+
+    // a listener that passes every event on to first and then to second
+    static SolverListener both(SolverListener first, SolverListener second) {
+        return new SolverListener() {
+            @Override
+            public void visited(int cell) {
+                first.visited(cell);
+                second.visited(cell);
+            }
+
+            @Override
+            public void deadEnd(int cell) {
+                first.deadEnd(cell);
+                second.deadEnd(cell);
+            }
+
+            @Override
+            public void path(int cell) {
+                first.path(cell);
+                second.path(cell);
+            }
+
+            @Override
+            public void step(int counter) {
+                first.step(counter);
+                second.step(counter);
+            }
+        };
+    }
+}
@@ -0,0 +1,139 @@
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// the events of a running solve on their way to the UI. the solver thread writes them into a ring and the UI
+// reads them back at its own pace (MazeUI drains it once per frame), so the solver never waits for a repaint.
+// there is exactly one writer and one reader, so head and tail are enough to share the ring without any locks:
+// only the reader moves head, only the writer moves tail, and an event is written before tail moves past it.
+// an event is one long, the type in the high half and the cell (or the counter for a step) in the low half.
+// when the ring is full the writer either waits for the reader (the solver goes as fast as the playback) or,
+// when the playback is unthrottled, drops the event and remembers that it did, the reader then has to read the
+// current state from the solver instead (see takeDropped)
+public class StepBuffer implements SolverListener {
+
+    public static final int VISITED = 0;
+    public static final int DEAD_END = 1;
+    public static final int PATH = 2;
+    public static final int STEP = 3;
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    // how long the writer sleeps while it waits for the reader
+    private static final long WAIT_NANOS = 1_000_000;
+
+    private final long[] events;
+    private final int mask;
+
+    // next event to read and next free slot, counting up forever (the slot is the count & mask)
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicBoolean dropped = new AtomicBoolean();
+    private volatile boolean waitForReader = true;
+
+    public StepBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // capacity is rounded up to a power of two
+    public StepBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.events = new long[size];
+        this.mask = size - 1;
+    }
+
+    // false lets the solver run at full speed, events that don't fit are dropped then
+    public void setWaitForReader(boolean waitForReader) {
+        this.waitForReader = waitForReader;
+    }
+
+    @Override
+    public void visited(int cell) {
+        add(VISITED, cell, false);
+    }
+
+    @Override
+    public void deadEnd(int cell) {
+        add(DEAD_END, cell, false);
+    }
+
+    // the path can't be read back from the solver like the rest, so it is never dropped
+    @Override
+    public void path(int cell) {
+        add(PATH, cell, true);
+    }
+
+    @Override
+    public void step(int counter) {
+        add(STEP, counter, false);
+    }
+
+    private void add(int type, int value, boolean keep) {
+        long slot = tail.get();
+        while (slot - head.get() == events.length) {
+            if (!keep && !waitForReader) {
+                dropped.set(true);
+                return;
+            }
+            LockSupport.parkNanos(WAIT_NANOS);
+        }
+        events[(int) slot & mask] = (long) type << 32 | (value & 0xFFFFFFFFL);
+        tail.lazySet(slot + 1);
+    }
+
+    // reader side: hands the events to target in order, up to (not including) the step after the first `steps`
+    // ones, so a step is always shown together with the cells it visited. returns the number of steps read
+    public long drain(SolverListener target, long steps) {
+        long read = 0;
+        long from = head.get();
+        long to = tail.get();
+        long slot = from;
+        for (; slot < to; slot++) {
+            long event = events[(int) slot & mask];
+            int value = (int) event;
+            switch ((int) (event >>> 32)) {
+                case VISITED:
+                    target.visited(value);
+                    break;
+                case DEAD_END:
+                    target.deadEnd(value);
+                    break;
+                case PATH:
+                    target.path(value);
+                    break;
+                default:
+                    if (read == steps) {
+                        head.lazySet(slot);
+                        return read;
+                    }
+                    target.step(value);
+                    read++;
+            }
+        }
+        head.lazySet(slot);
+        return read;
+    }
+
+    // true (once) if events were dropped since the last call
+    public boolean takeDropped() {
+        return dropped.getAndSet(false);
+    }
+
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    // writer side: waits until the reader has read everything
+    public void awaitEmpty() {
+        while (!isEmpty()) {
+            LockSupport.parkNanos(WAIT_NANOS);
+        }
+    }
+
+    // forgets the unread events, only while nobody is writing
+    public void clear() {
+        head.set(tail.get());
+        dropped.set(false);
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.Random;
+
+// the open tiles a teleport can still send us to (every non wall tile the current solve hasn't visited), so a
+// teleport target is one random draw instead of trying random tiles until one is free.
+// the free tiles are kept at the front of an array, position[cell] says where a tile is. SearchContext.markVisited
+// takes a tile out by moving the last free tile into its slot, O(1). the removed tiles pile up behind the free
+// ones in the order they were removed, and position[] of a removed tile keeps the slot it was taken from, so
+// reset() can undo the removals backwards and the array is in the same order again for the next solve.
+// that makes the draws of a seeded Random repeat exactly (see MazeSolver.setSeed)
+public class TeleportTargets {
+
+    private final MazeGrid maze;
+    private final int[] position;
+    private int[] cells;
+    private int free;
+
+    // MazeGrid.getModCount() when the array was built, a wall edit means the open tiles changed
+    private int modCount;
+
+    public TeleportTargets(MazeGrid maze) {
+        this.maze = maze;
+        this.position = new int[maze.size()];
+        build();
+    }
+
+    // lists every open tile in cell order, walls get position -1
+    private void build() {
+        int open = 0;
+        for (int cell = 0; cell < maze.size(); cell++) {
+            if (!maze.isWall(cell))
+                open++;
+        }
+        if (cells == null || cells.length != open)
+            cells = new int[open];
+
+        open = 0;
+        for (int cell = 0; cell < maze.size(); cell++) {
+            if (maze.isWall(cell)) {
+                position[cell] = -1;
+            } else {
+                position[cell] = open;
+                cells[open++] = cell;
+            }
+        }
+        free = open;
+        modCount = maze.getModCount();
+    }
+
+    // the tile was visited, it can't be a target anymore
+    public void remove(int cell) {
+        int slot = position[cell];
+        if (slot < 0 || slot >= free || cells[slot] != cell)
+            return;
+
+        int last = cells[--free];
+        cells[slot] = last;
+        position[last] = slot;
+        cells[free] = cell;
+        // the tile isn't free anymore, so its position can remember where it came from for reset()
+        position[cell] = slot;
+    }
+
+    // a random free tile, -1 if every open tile was visited already
+    public int pick(Random random) {
+        return free == 0 ? -1 : cells[random.nextInt(free)];
+    }
+
+    public int size() {
+        return free;
+    }
+
+    // every open tile is free again, costs as much as the tiles the last solve visited
+    public void reset() {
+        if (modCount != maze.getModCount()) {
+            build();
+            return;
+        }
+        while (free < cells.length) {
+            int cell = cells[free];
+            int slot = position[cell];
+            int moved = cells[slot];
+            cells[slot] = cell;
+            position[cell] = slot;
+            cells[free] = moved;
+            position[moved] = free;
+            free++;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+// enum containing all the types of tiles to avoid repeating blocks of code
+// (MazeGrid's cell type codes follow the same order)
+enum TileType {
+    EMPTY,
+    WALL,
+    START,
+    END,
+    TELEPORT,
+    COUNTER_UP,
+    COUNTER_DOWN
+}
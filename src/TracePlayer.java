@@ -0,0 +1,98 @@
+import java.util.function.IntConsumer;
+
+// plays a SolveTrace back: keeps what the grid looks like at one step of the trace (which tiles were explored,
+// are dead ends or on the path) and can move to any other step, forwards or backwards.
+// step n means the first n steps and the events that came with them. a solve only ever adds to what the grid
+// shows, so going forwards applies the events in between and going backwards takes them away again: we start
+// decoding at the keyframe before the target step (the bytes can't be read backwards), skip to the target and
+// undo everything from there to where we were. a jump costs the steps jumped over plus at most one keyframe
+public class TracePlayer {
+
+    // per tile: how many times it was visited (both halves of a bidirectional search can visit it) and two flags
+    private static final int VISITS = 3;
+    private static final int DEAD_END = 4;
+    private static final int PATH = 8;
+
+    private final SolveTrace trace;
+    private final byte[] state;
+    private SolveTrace.Cursor cursor;
+    private int step;
+
+    public TracePlayer(SolveTrace trace) {
+        this.trace = trace;
+        this.state = new byte[trace.getRows() * trace.getCols()];
+        this.cursor = trace.cursorAt(0);
+        play(cursor, 0, 1, null);
+    }
+
+    public SolveTrace getTrace() {
+        return trace;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    // the step counter at the current step
+    public int getCounter() {
+        return cursor.counter;
+    }
+
+    public boolean isVisited(int cell) {
+        return (state[cell] & VISITS) != 0;
+    }
+
+    public boolean isDeadEnd(int cell) {
+        return (state[cell] & DEAD_END) != 0;
+    }
+
+    public boolean isOnPath(int cell) {
+        return (state[cell] & PATH) != 0;
+    }
+
+    // moves to the step (clamped to the trace), changed gets every tile that looks different afterwards
+    // (a tile can be reported more than once)
+    public void seek(int target, IntConsumer changed) {
+        target = Math.max(0, Math.min(trace.getSteps(), target));
+        if (target >= step) {
+            play(cursor, target, 1, changed);
+        } else {
+            SolveTrace.Cursor from = trace.cursorAt(target / SolveTrace.KEYFRAME_STEPS);
+            play(from, target, 0, null);
+            play(from.copy(), step, -1, changed);
+            cursor = from;
+        }
+        step = target;
+    }
+
+    // runs the cursor up to the target step (stopping in front of the step after it), applying (direction 1),
+    // undoing (-1) or just skipping (0) the events
+    private void play(SolveTrace.Cursor cursor, int target, int direction, IntConsumer changed) {
+        while (cursor.peek()) {
+            if (cursor.type == SolveTrace.STEP && cursor.steps == target)
+                break;
+            if (direction != 0 && cursor.type != SolveTrace.STEP)
+                apply(cursor.type, cursor.value, direction, changed);
+            cursor.advance();
+        }
+    }
+
+    private void apply(int type, int cell, int direction, IntConsumer changed) {
+        int before = state[cell];
+        int after;
+        if (type == SolveTrace.VISITED)
+            after = (before & ~VISITS) | ((before & VISITS) + direction);
+        else {
+            int flag = type == SolveTrace.DEAD_END ? DEAD_END : PATH;
+            after = direction > 0 ? before | flag : before & ~flag;
+        }
+        state[cell] = (byte) after;
+        if (changed != null && shown(before) != shown(after))
+            changed.accept(cell);
+    }
+
+    // the part of a tile's state the grid shows (visited once or twice looks the same)
+    private static int shown(int state) {
+        return (state & VISITS) != 0 ? (state & ~VISITS) | 1 : state;
+    }
+}
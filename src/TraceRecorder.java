@@ -0,0 +1,93 @@
+import java.util.Arrays;
+
+// writes the events of a solve into a SolveTrace (see there for the format), set it as the solver's listener
+// (or next to the UI's with SolverListener.both) and call finish() after the solve. the path isn't an event of
+// the solver itself, whoever reconstructs it passes its cells to path() before finishing
+public class TraceRecorder implements SolverListener {
+
+    private final MazeGrid maze;
+    private final String algorithm;
+
+    private byte[] data = new byte[1 << 12];
+    private int length;
+    private int steps;
+    private long events;
+    private int cell;
+    private int counter;
+
+    private int[] keyframeOffsets = new int[16];
+    private int[] keyframeCells = new int[16];
+    private int[] keyframeCounters = new int[16];
+    private int keyframes = 1;      // keyframe 0 is the start, offset 0 with cell and counter 0
+
+    public TraceRecorder(MazeGrid maze, String algorithm) {
+        this.maze = maze;
+        this.algorithm = algorithm;
+    }
+
+    @Override
+    public void visited(int cell) {
+        addCell(SolveTrace.VISITED, cell);
+    }
+
+    @Override
+    public void deadEnd(int cell) {
+        addCell(SolveTrace.DEAD_END, cell);
+    }
+
+    @Override
+    public void path(int cell) {
+        addCell(SolveTrace.PATH, cell);
+    }
+
+    @Override
+    public void step(int counter) {
+        if (steps > 0 && steps % SolveTrace.KEYFRAME_STEPS == 0)
+            addKeyframe();
+        add(SolveTrace.STEP, (long) counter - this.counter);
+        this.counter = counter;
+        steps++;
+    }
+
+    private void addCell(int type, int cell) {
+        add(type, (long) cell - this.cell);
+        this.cell = cell;
+    }
+
+    private void addKeyframe() {
+        if (keyframes == keyframeOffsets.length) {
+            keyframeOffsets = Arrays.copyOf(keyframeOffsets, keyframes * 2);
+            keyframeCells = Arrays.copyOf(keyframeCells, keyframes * 2);
+            keyframeCounters = Arrays.copyOf(keyframeCounters, keyframes * 2);
+        }
+        keyframeOffsets[keyframes] = length;
+        keyframeCells[keyframes] = cell;
+        keyframeCounters[keyframes] = counter;
+        keyframes++;
+    }
+
+    // zigzag moves the sign into the lowest bit, then 7 bits per byte with the high bit set on all but the last
+    private void add(int type, long delta) {
+        long token = ((delta << 1) ^ (delta >> 63)) << 2 | type;
+        if (length + 10 > data.length)
+            data = Arrays.copyOf(data, data.length * 2);
+        while ((token & ~0x7FL) != 0) {
+            data[length++] = (byte) ((token & 0x7F) | 0x80);
+            token >>>= 7;
+        }
+        data[length++] = (byte) token;
+        events++;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    // the trace of everything recorded so far
+    public SolveTrace finish() {
+        return new SolveTrace(algorithm, maze.getRows(), maze.getCols(), maze.contentHash(),
+                Arrays.copyOf(data, length), length, steps, events,
+                Arrays.copyOf(keyframeOffsets, keyframes), Arrays.copyOf(keyframeCells, keyframes),
+                Arrays.copyOf(keyframeCounters, keyframes));
+    }
+}
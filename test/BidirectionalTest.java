@@ -0,0 +1,96 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the two halves of a bidirectional search have to be stitched into one path as short as the one-sided search,
+// and the backward half must never walk out of a teleport
+class BidirectionalTest {
+
+    @Test
+    void sameLengthAsOneSidedSearchOnSampleMazes() throws Exception {
+        for (MazeGrid maze : TestMazes.samples()) {
+            if (maze.getTeleportCount() == 0)
+                assertSameLength(maze);
+        }
+    }
+
+    @Test
+    void sameLengthAsOneSidedSearchOnRandomMazes() {
+        Random random = new Random(8);
+        for (int i = 0; i < 500; i++) {
+            assertSameLength(TestMazes.random(random, 5 + random.nextInt(40), 5 + random.nextInt(40),
+                    random.nextDouble() * 0.45, random.nextInt(6), 0));
+        }
+    }
+
+    @Test
+    void validPathsOnRandomMazesWithTeleports() {
+        Random random = new Random(12);
+        for (int i = 0; i < 500; i++) {
+            MazeGrid maze = TestMazes.random(random, 5 + random.nextInt(25), 5 + random.nextInt(25),
+                    random.nextDouble() * 0.4, random.nextInt(6), 1 + random.nextInt(3));
+            MazeSolver solver = new MazeSolver(maze);
+            solver.setVerbose(false);
+            solver.setSeed(i);
+            if (solver.bidirectionalBFS())
+                assertValidPath(maze, solver);
+            if (solver.bidirectionalAStar())
+                assertValidPath(maze, solver);
+        }
+    }
+
+    // the backward half starts next to the teleport, but stepping into it backwards would mean a teleport leads
+    // to its neighbors. the forward half is still far away from it when the two meet
+    @Test
+    void backwardHalfTreatsTeleportsAsWalls() {
+        MazeGrid maze = TestMazes.of(
+                "A      ",
+                "       ",
+                "       ",
+                "       ",
+                "       ",
+                "       ",
+                "     TB");
+        MazeSolver solver = new MazeSolver(maze);
+        solver.setVerbose(false);
+        assertTrue(solver.bidirectionalBFS());
+        assertFalse(solver.isVisited(6, 5));
+        assertEquals(13, TestMazes.pathLength(solver, true));
+
+        assertTrue(solver.bidirectionalAStar());
+        assertFalse(solver.isVisited(6, 5));
+        assertEquals(13, TestMazes.pathLength(solver, true));
+    }
+
+    private static void assertSameLength(MazeGrid maze) {
+        MazeSolver bfs = new MazeSolver(maze);
+        bfs.setVerbose(false);
+        MazeSolver bidirectional = new MazeSolver(maze);
+        bidirectional.setVerbose(false);
+
+        boolean expected = bfs.BFS();
+        boolean found = bidirectional.bidirectionalBFS();
+        assertEquals(expected, found);
+        assertEquals(TestMazes.pathLength(bfs, expected), TestMazes.pathLength(bidirectional, found));
+        if (found)
+            assertValidPath(maze, bidirectional);
+
+        expected = bfs.AStar();
+        found = bidirectional.bidirectionalAStar();
+        assertEquals(expected, found);
+        assertEquals(TestMazes.pathLength(bfs, expected), TestMazes.pathLength(bidirectional, found));
+        if (found)
+            assertValidPath(maze, bidirectional);
+    }
+
+    // the stitched path goes from A to B
+    private static void assertValidPath(MazeGrid maze, MazeSolver solver) {
+        List<Tile> path = solver.reconstructPath(solver.getEnd());
+        assertTrue(path.get(0).isStart());
+        assertTrue(path.get(path.size() - 1).isEnd());
+        TestMazes.assertValidPath(maze, path);
+    }
+}
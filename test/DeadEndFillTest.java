@@ -0,0 +1,87 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the worklist fill has to mark exactly the dead ends the old fill found by rescanning the maze until nothing changed
+class DeadEndFillTest {
+
+    @Test
+    void sameDeadEndsAsRepeatedScansOnSampleMazes() throws Exception {
+        for (MazeGrid maze : TestMazes.samples()) {
+            assertSameAsRepeatedScans(maze);
+        }
+    }
+
+    @Test
+    void sameDeadEndsAsRepeatedScansOnGeneratedMazes() {
+        for (MazeGrid maze : generated()) {
+            assertSameAsRepeatedScans(maze);
+        }
+    }
+
+    @Test
+    void pathIsAsShortAsBfs() {
+        for (MazeGrid maze : generated()) {
+            MazeSolver bfs = new MazeSolver(maze);
+            bfs.setVerbose(false);
+            MazeSolver fill = new MazeSolver(maze);
+            fill.setVerbose(false);
+            assertEquals(TestMazes.pathLength(bfs, bfs.BFS()), TestMazes.pathLength(fill, fill.deadEndFill()));
+        }
+    }
+
+    private static void assertSameAsRepeatedScans(MazeGrid maze) {
+        boolean[] expected = repeatedScans(maze);
+        MazeSolver solver = new MazeSolver(maze);
+        solver.setVerbose(false);
+        solver.deadEndFill();
+        for (int cell = 0; cell < maze.size(); cell++) {
+            assertEquals(expected[cell], solver.isDeadEnd(maze.rowOf(cell), maze.colOf(cell)),
+                    "tile (" + maze.rowOf(cell) + ", " + maze.colOf(cell) + ")");
+        }
+    }
+
+    // generated mazes without teleports (the search after the fill takes them at random), all generator algorithms
+    static List<MazeGrid> generated() {
+        Random random = new Random(19);
+        List<MazeGrid> mazes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            MazeGenerator generator = new MazeGenerator(5 + random.nextInt(60), 5 + random.nextInt(60), i);
+            generator.setSpecialTiles(0, random.nextInt(4), random.nextInt(4));
+            mazes.add(generator.generate(MazeGenerator.ALGORITHMS[i % MazeGenerator.ALGORITHMS.length]));
+        }
+        return mazes;
+    }
+
+    // the fill as it was before the worklist: scan every tile, mark the ones with at most one walkable neighbor
+    // that isn't a dead end yet, and scan again until a whole pass marks nothing
+    static boolean[] repeatedScans(MazeGrid maze) {
+        boolean[] isDeadEnd = new boolean[maze.size()];
+        boolean foundDeadEnd = true;
+        while (foundDeadEnd) {
+            foundDeadEnd = false;
+            for (int cell = 0; cell < maze.size(); cell++) {
+                byte type = maze.getCell(cell);
+                if (type == MazeGrid.WALL || type == MazeGrid.START || type == MazeGrid.END || isDeadEnd[cell])
+                    continue;
+
+                int walkableNeighbors = 0;
+                for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                    int row = maze.rowOf(cell) + MazeGrid.DIRECTION_ROWS[d];
+                    int col = maze.colOf(cell) + MazeGrid.DIRECTION_COLS[d];
+                    if (maze.inBounds(row, col) && !maze.isWall(maze.index(row, col)) && !isDeadEnd[maze.index(row, col)])
+                        walkableNeighbors++;
+                }
+                if (walkableNeighbors <= 1) {
+                    isDeadEnd[cell] = true;
+                    foundDeadEnd = true;
+                }
+            }
+        }
+        return isDeadEnd;
+    }
+}
@@ -0,0 +1,157 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// DFS runs on its own stack instead of recursion, it has to visit the tiles in exactly the order the recursive
+// version did, with the same counter after every step and the same parents
+class DfsTest {
+
+    @Test
+    void sameOrderAsRecursiveDfsOnSampleMazes() throws Exception {
+        for (MazeGrid maze : TestMazes.samples()) {
+            assertSameAsRecursive(maze, 1);
+        }
+    }
+
+    @Test
+    void sameOrderAsRecursiveDfsOnRandomMazes() {
+        Random random = new Random(21);
+        for (int i = 0; i < 300; i++) {
+            MazeGrid maze = TestMazes.random(random, 5 + random.nextInt(25), 5 + random.nextInt(25),
+                    random.nextDouble() * 0.4, random.nextInt(6), random.nextInt(3));
+            assertSameAsRecursive(maze, i);
+        }
+    }
+
+    // a corridor winding through the whole maze, a recursive DFS needs a stack frame per tile on it
+    @Test
+    void longCorridorDoesNotOverflow() {
+        MazeGrid maze = new MazeGenerator(601, 601, 1).generate("backtracker");
+        MazeSolver solver = new MazeSolver(maze);
+        solver.setVerbose(false);
+        assertTrue(solver.DFS());
+    }
+
+    private static void assertSameAsRecursive(MazeGrid maze, long seed) {
+        Recorder expected = new Recorder();
+        RecursiveDfs reference = new RecursiveDfs(maze, seed, expected);
+        boolean expectedFound = reference.run();
+
+        Recorder actual = new Recorder();
+        MazeSolver solver = new MazeSolver(maze);
+        solver.setVerbose(false);
+        solver.setSeed(seed);
+        solver.setListener(actual);
+        assertEquals(expectedFound, solver.DFS());
+
+        assertEquals(expected.visited, actual.visited, "visit order");
+        assertEquals(expected.steps, actual.steps, "counter after every step");
+        for (int cell : expected.visited) {
+            assertEquals(reference.context.getParent(cell), solver.getContext().getParent(cell), "parent of " + cell);
+        }
+    }
+
+    private static class Recorder implements SolverListener {
+        final List<Integer> visited = new ArrayList<>();
+        final List<Integer> steps = new ArrayList<>();
+
+        @Override
+        public void visited(int cell) {
+            visited.add(cell);
+        }
+
+        @Override
+        public void deadEnd(int cell) {
+        }
+
+        @Override
+        public void path(int cell) {
+        }
+
+        @Override
+        public void step(int counter) {
+            steps.add(counter);
+        }
+    }
+
+    // the DFS as it was before the explicit stack, moved onto the grid: the same recursion, special tiles and
+    // counter, with teleport targets drawn like the solver does (same seed, same free tile set)
+    private static class RecursiveDfs {
+        final MazeGrid maze;
+        final SearchContext context;
+        final Random random;
+        final SolverListener listener;
+        int counter;
+
+        RecursiveDfs(MazeGrid maze, long seed, SolverListener listener) {
+            this.maze = maze;
+            this.context = new SearchContext(maze);
+            if (maze.getTeleportCount() > 0)
+                context.setTeleportTargets(new TeleportTargets(maze));
+            context.setListener(listener);
+            this.random = new Random(seed);
+            this.listener = listener;
+        }
+
+        boolean run() {
+            context.reset();
+            context.markVisited(maze.getStart());
+            counter++;
+            listener.step(counter);
+            return dfs(maze.getStart());
+        }
+
+        private boolean dfs(int current) {
+            if (maze.isEnd(current)) {
+                listener.step(counter);
+                return true;
+            }
+
+            int next = current;
+            switch (maze.getCell(current)) {
+                case MazeGrid.COUNTER_UP:
+                    counter += 50;
+                    break;
+                case MazeGrid.COUNTER_DOWN:
+                    counter -= 50;
+                    break;
+                case MazeGrid.TELEPORT:
+                    next = context.getTeleportTargets().pick(random);
+                    break;
+                default:
+                    break;
+            }
+
+            if (next != current) {
+                if (next != -1 && !context.isVisited(next)) {
+                    visit(next, current);
+                    return dfs(next);
+                }
+                return false;
+            }
+
+            int open = maze.openDirections(current);
+            for (int d = 0; d < MazeGrid.DIRECTIONS; d++) {
+                if ((open & (1 << d)) == 0) continue;
+                int neighbor = maze.neighbor(current, d);
+                if (!context.isVisited(neighbor)) {
+                    visit(neighbor, current);
+                    if (dfs(neighbor))
+                        return true;
+                }
+            }
+            return false;
+        }
+
+        private void visit(int cell, int parentCell) {
+            context.markVisited(cell);
+            context.setParent(cell, parentCell);
+            counter++;
+            listener.step(counter);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// queries through an index have to find paths as short as a query without one
+class DistanceIndexTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    void exactIndexGivesShortestPaths() {
+        Random random = new Random(17);
+        for (int i = 0; i < 20; i++) {
+            MazeGrid maze = new MazeGenerator(5 + random.nextInt(30), 5 + random.nextInt(30), i)
+                    .generate(MazeGenerator.ALGORITHMS[i % MazeGenerator.ALGORITHMS.length]);
+            DistanceIndex index = DistanceIndex.exact(maze);
+            assertTrue(index.isExact());
+            assertSameAsWithoutIndex(maze, index, random);
+        }
+    }
+
+    @Test
+    void landmarkIndexGivesShortestPaths() {
+        Random random = new Random(18);
+        for (int i = 0; i < 20; i++) {
+            MazeGrid maze = new MazeGenerator(20 + random.nextInt(60), 20 + random.nextInt(60), i)
+                    .generate(MazeGenerator.ALGORITHMS[i % MazeGenerator.ALGORITHMS.length]);
+            DistanceIndex index = DistanceIndex.landmarks(maze, 1 + random.nextInt(8));
+            assertFalse(index.isExact());
+            assertSameAsWithoutIndex(maze, index, random);
+        }
+    }
+
+    @Test
+    void savedIndexLoadsForTheSameMazeOnly() throws Exception {
+        MazeGrid maze = new MazeGenerator(40, 40, 3).generate("kruskal");
+        File file = new File(directory, "maze.index");
+        DistanceIndex.landmarks(maze, 4).save(file.getPath());
+
+        DistanceIndex loaded = DistanceIndex.load(file.getPath(), maze);
+        assertEquals(4, loaded.getLandmarkCount());
+        assertSameAsWithoutIndex(maze, loaded, new Random(4));
+
+        MazeGrid other = new MazeGenerator(40, 40, 4).generate("kruskal");
+        assertThrows(IllegalArgumentException.class, () -> DistanceIndex.load(file.getPath(), other));
+    }
+
+    // a wall edit makes the distances wrong, the solver must not follow them (it used to loop forever)
+    @Test
+    void editedMazeMakesTheIndexStale() {
+        MazeGrid maze = TestMazes.of(
+                "A    ",
+                " ### ",
+                "    B");
+        DistanceIndex index = DistanceIndex.exact(maze);
+        MazeSolver solver = new MazeSolver(maze);
+        solver.setVerbose(false);
+        solver.setDistanceIndex(index);
+        assertTrue(solver.solve(0, 0, 2, 4));
+
+        maze.setWall(maze.index(1, 0), true);
+        assertFalse(index.isCurrent());
+        assertThrows(IllegalStateException.class, () -> solver.solve(0, 0, 2, 4));
+        assertThrows(IllegalArgumentException.class, () -> solver.setDistanceIndex(index));
+
+        // a fresh index knows the new walls
+        solver.setDistanceIndex(DistanceIndex.exact(maze));
+        assertTrue(solver.solve(0, 0, 2, 4));
+        assertEquals(7, solver.reconstructPath(maze.tileAt(maze.index(2, 4))).size());
+    }
+
+    private static void assertSameAsWithoutIndex(MazeGrid maze, DistanceIndex index, Random random) {
+        MazeSolver plain = new MazeSolver(maze);
+        plain.setVerbose(false);
+        MazeSolver indexed = new MazeSolver(maze);
+        indexed.setVerbose(false);
+        indexed.setDistanceIndex(index);
+
+        for (int query = 0; query < 30; query++) {
+            int from = randomOpen(maze, random);
+            int to = randomOpen(maze, random);
+            boolean expected = plain.solve(maze.rowOf(from), maze.colOf(from), maze.rowOf(to), maze.colOf(to));
+            boolean found = indexed.solve(maze.rowOf(from), maze.colOf(from), maze.rowOf(to), maze.colOf(to));
+            assertEquals(expected, found);
+            if (found) {
+                assertEquals(plain.reconstructPath(maze.tileAt(to)).size(), indexed.reconstructPath(maze.tileAt(to)).size(),
+                        "from " + from + " to " + to);
+            }
+        }
+    }
+
+    private static int randomOpen(MazeGrid maze, Random random) {
+        while (true) {
+            int cell = random.nextInt(maze.size());
+            if (!maze.isWall(cell))
+                return cell;
+        }
+    }
+}
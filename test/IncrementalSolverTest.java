@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// after any wall edits the repaired LPA* result has to be exactly what a fresh solve of the edited maze gives
+class IncrementalSolverTest {
+
+    @Test
+    void repairedPathMatchesFreshSolve() {
+        Random random = new Random(5);
+        for (int i = 0; i < 200; i++) {
+            MazeGenerator generator = new MazeGenerator(5 + random.nextInt(20), 5 + random.nextInt(20), i);
+            generator.setSpecialTiles(0, random.nextInt(3), random.nextInt(3));
+            MazeGrid maze = generator.generate(MazeGenerator.ALGORITHMS[i % MazeGenerator.ALGORITHMS.length]);
+            IncrementalSolver solver = new IncrementalSolver(maze);
+
+            for (int edit = 0; edit < 30; edit++) {
+                // a few walls added or removed at a time, like dragging over the maze
+                if (edit > 0) {
+                    for (int b = 1 + random.nextInt(3); b > 0; b--) {
+                        int cell = random.nextInt(maze.size());
+                        byte type = maze.getCell(cell);
+                        if (type == MazeGrid.EMPTY || type == MazeGrid.WALL)
+                            solver.setWall(maze.rowOf(cell), maze.colOf(cell), type == MazeGrid.EMPTY);
+                    }
+                }
+                solver.solve();
+                assertSameAsFreshSolve(solver, "maze " + i + " edit " + edit);
+            }
+        }
+    }
+
+    @Test
+    void wallOnThePathIsRoutedAroundAndRemovedAgain() {
+        MazeGrid maze = TestMazes.of(
+                "A    ",
+                " ### ",
+                " #   ",
+                " # # ",
+                "   #B");
+        IncrementalSolver solver = new IncrementalSolver(maze);
+        assertTrue(solver.solve());
+        assertEquals(8, solver.getDistance());
+
+        // close the way down the left side, only the right side is left
+        solver.setWall(2, 0, true);
+        assertTrue(solver.solve());
+        assertEquals(8, solver.getDistance());
+        assertSameAsFreshSolve(solver, "left side closed");
+
+        // and the right side too, nothing is left
+        solver.setWall(0, 4, true);
+        assertFalse(solver.solve());
+        assertEquals(-1, solver.getDistance());
+        assertTrue(solver.getPath().isEmpty());
+
+        solver.setWall(2, 0, false);
+        assertTrue(solver.solve());
+        assertSameAsFreshSolve(solver, "left side open again");
+    }
+
+    @Test
+    void teleportsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalSolver(TestMazes.of("A T B")));
+    }
+
+    // same distance and tiles as an IncrementalSolver built on a copy of the edited maze, and the same
+    // length as MazeSolver's BFS (counters don't change the path, they are plain floor for both)
+    private static void assertSameAsFreshSolve(IncrementalSolver solver, String where) {
+        MazeGrid copy = TestMazes.copy(solver.getMaze());
+        IncrementalSolver fresh = new IncrementalSolver(copy);
+        fresh.solve();
+        assertEquals(fresh.getDistance(), solver.getDistance(), where);
+        assertEquals(tiles(fresh.getPath()), tiles(solver.getPath()), where);
+
+        MazeSolver bfs = new MazeSolver(copy);
+        bfs.setVerbose(false);
+        int expected = TestMazes.pathLength(bfs, bfs.BFS());
+        assertEquals(expected, solver.getDistance() == -1 ? -1 : solver.getDistance() + 1, where);
+    }
+
+    private static String tiles(List<Tile> path) {
+        StringBuilder text = new StringBuilder();
+        for (Tile tile : path) {
+            text.append('(').append(tile.getRow()).append(',').append(tile.getCol()).append(')');
+        }
+        return text.toString();
+    }
+}
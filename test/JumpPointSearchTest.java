@@ -0,0 +1,88 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// jump point search has to find paths exactly as short as A*, it only skips expanding the cells in between
+class JumpPointSearchTest {
+
+    @Test
+    void sameLengthAsAStarOnSampleMazes() throws Exception {
+        for (MazeGrid maze : TestMazes.samples()) {
+            // teleports are random, those mazes are covered by the path checks below
+            if (maze.getTeleportCount() > 0)
+                continue;
+            assertSameLength(maze);
+        }
+    }
+
+    @Test
+    void sameLengthAsAStarOnRandomMazes() {
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            MazeGrid maze = TestMazes.random(random, 5 + random.nextInt(30), 5 + random.nextInt(30),
+                    random.nextDouble() * 0.4, random.nextInt(6), 0);
+            assertSameLength(maze);
+        }
+    }
+
+    // the jump left from (4,7) used to run past (4,6) because the teleport below (4,7) counted as an open side,
+    // so (4,6) was only reached later from the +50 counter at (4,4) and the path went there and back
+    @Test
+    void teleportNextToCorridorIsNotAnOpening() {
+        MazeGrid maze = TestMazes.of(
+                "         ",
+                "         ",
+                "         ",
+                "       A ",
+                "    C    ",
+                "       T ",
+                "         ",
+                "         ",
+                "      B  ");
+        for (long seed = 0; seed < 200; seed++) {
+            MazeSolver solver = new MazeSolver(maze);
+            solver.setVerbose(false);
+            solver.setSeed(seed);
+            assertTrue(solver.jumpPointSearch());
+
+            List<Tile> path = solver.reconstructPath(solver.getEnd());
+            TestMazes.assertValidPath(maze, path);
+            // 3,7 -> 4,7 -> 4,6 -> 5,6 -> ... -> 8,6 without the teleport, the teleport can only make it shorter
+            assertTrue(path.size() <= 7, "seed " + seed + ": path of " + path.size() + " tiles");
+            for (Tile tile : path) {
+                assertFalse(tile.isCounterUp(), "seed " + seed + ": path goes over the counter");
+            }
+        }
+    }
+
+    @Test
+    void validPathsOnRandomMazesWithTeleports() {
+        Random random = new Random(11);
+        for (int i = 0; i < 500; i++) {
+            MazeGrid maze = TestMazes.random(random, 5 + random.nextInt(20), 5 + random.nextInt(20),
+                    random.nextDouble() * 0.4, random.nextInt(6), 1 + random.nextInt(3));
+            MazeSolver solver = new MazeSolver(maze);
+            solver.setVerbose(false);
+            solver.setSeed(i);
+            if (solver.jumpPointSearch())
+                TestMazes.assertValidPath(maze, solver.reconstructPath(solver.getEnd()));
+        }
+    }
+
+    private static void assertSameLength(MazeGrid maze) {
+        MazeSolver aStar = new MazeSolver(maze);
+        aStar.setVerbose(false);
+        MazeSolver jps = new MazeSolver(maze);
+        jps.setVerbose(false);
+
+        boolean expected = aStar.AStar();
+        boolean found = jps.jumpPointSearch();
+        assertEquals(expected, found);
+        assertEquals(TestMazes.pathLength(aStar, expected), TestMazes.pathLength(jps, found));
+        if (found)
+            TestMazes.assertValidPath(maze, jps.reconstructPath(jps.getEnd()));
+    }
+}
@@ -0,0 +1,98 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// every maze has to come back the same from .txt -> .maze -> grid and back to .txt
+class MazeFileTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    void sampleMazesRoundTrip() throws Exception {
+        File[] files = new File("Mazes").listFiles((dir, name) -> name.endsWith(".txt"));
+        assertNotNull(files);
+        assertTrue(files.length > 0);
+        for (File file : files) {
+            MazeGrid text = MazeFile.load(file.getPath());
+
+            File binary = new File(directory, file.getName() + MazeFile.EXTENSION);
+            MazeFile.write(text, binary.getPath());
+            MazeGrid read = MazeFile.load(binary.getPath());
+            assertSameGrid(text, read, file.getName());
+
+            File back = new File(directory, file.getName());
+            try (OutputStream out = new FileOutputStream(back)) {
+                MazeGenerator.write(read, out);
+            }
+            assertSameGrid(text, MazeFile.load(back.getPath()), file.getName());
+        }
+    }
+
+    @Test
+    void generatedMazesRoundTrip() throws Exception {
+        for (int i = 0; i < MazeGenerator.ALGORITHMS.length; i++) {
+            MazeGenerator generator = new MazeGenerator(37 + i, 71 - i, i);
+            generator.setSpecialTiles(5, 3, 3);
+            MazeGrid maze = generator.generate(MazeGenerator.ALGORITHMS[i]);
+
+            File binary = new File(directory, "generated" + MazeFile.EXTENSION);
+            MazeFile.write(maze, binary.getPath());
+            assertSameGrid(maze, MazeFile.read(binary.getPath()), MazeGenerator.ALGORITHMS[i]);
+        }
+    }
+
+    // the header can say a maze has no A or no B, but the text loader doesn't take such mazes either
+    @Test
+    void headerWithoutStartOrEndIsRejected() throws Exception {
+        MazeGrid maze = TestMazes.of(
+                "A  #",
+                " T  ",
+                "#  B");
+        File file = new File(directory, "maze" + MazeFile.EXTENSION);
+
+        MazeFile.write(maze, file.getPath());
+        overwriteInts(file, 16, -1, -1);
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> MazeFile.read(file.getPath()));
+        assertTrue(e.getMessage().startsWith("Maze must have exactly one start tile (A)"), e.getMessage());
+
+        MazeFile.write(maze, file.getPath());
+        overwriteInts(file, 24, -1, -1);
+        e = assertThrows(IllegalArgumentException.class, () -> MazeFile.read(file.getPath()));
+        assertTrue(e.getMessage().startsWith("Maze must have exactly one end tile (B)"), e.getMessage());
+
+        // the start on top of a wall or the teleport
+        MazeFile.write(maze, file.getPath());
+        overwriteInts(file, 16, 0, 3);
+        assertThrows(IllegalArgumentException.class, () -> MazeFile.read(file.getPath()));
+        MazeFile.write(maze, file.getPath());
+        overwriteInts(file, 16, 1, 1);
+        assertThrows(IllegalArgumentException.class, () -> MazeFile.read(file.getPath()));
+    }
+
+    private static void overwriteInts(File file, int offset, int first, int second) throws Exception {
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.seek(offset);
+            out.writeInt(first);
+            out.writeInt(second);
+        }
+    }
+
+    private static void assertSameGrid(MazeGrid expected, MazeGrid actual, String name) {
+        assertEquals(expected.getRows(), actual.getRows(), name);
+        assertEquals(expected.getCols(), actual.getCols(), name);
+        assertEquals(expected.getStart(), actual.getStart(), name);
+        assertEquals(expected.getEnd(), actual.getEnd(), name);
+        assertEquals(expected.getTeleportCount(), actual.getTeleportCount(), name);
+        for (int cell = 0; cell < expected.size(); cell++) {
+            assertEquals(expected.getCell(cell), actual.getCell(cell), name + " tile " + cell);
+        }
+        assertEquals(expected.contentHash(), actual.contentHash(), name);
+    }
+}
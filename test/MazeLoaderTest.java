@@ -0,0 +1,137 @@
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the chunked loader has to give the same grid, or the same error, as the sequential one for every file,
+// so every file here is loaded with chunks small enough to cut it in lots of places
+class MazeLoaderTest {
+
+    private static final int[] CHUNK_SIZES = {1, 2, 3, 7, 16, 64};
+
+    private static ForkJoinPool pool;
+
+    @TempDir
+    File directory;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(3);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    void sampleMazesWithEveryLineEnding() throws Exception {
+        File[] files = new File("Mazes").listFiles((dir, name) -> name.endsWith(".txt"));
+        assertNotNull(files);
+        for (File file : files) {
+            String text = Files.readString(file.toPath(), StandardCharsets.ISO_8859_1).replace("\r\n", "\n");
+            for (String ending : new String[] {"\n", "\r\n", "\r"}) {
+                assertSameAsSequential(text.replace("\n", ending));
+            }
+        }
+    }
+
+    @Test
+    void blankLinesAndTrailingBreaks() throws Exception {
+        assertSameAsSequential("A  \n # \n  B");
+        assertSameAsSequential("A  \n # \n  B\n");
+        assertSameAsSequential("\n\nA  \n\n\n # \n   \n\t\n  B\n\n");
+        assertSameAsSequential("\r\n\r\nA  \r\n\r\n # \r\n \t \r\n  B\r\n\r\n");
+        assertSameAsSequential("\r\rA  \r\r # \r   \r  B\r\r");
+        assertSameAsSequential("A  \r\n\n\r # \n\r\r\n  B");
+    }
+
+    @Test
+    void randomFiles() throws Exception {
+        Random random = new Random(14);
+        String[] endings = {"\n", "\r\n", "\r"};
+        for (int i = 0; i < 200; i++) {
+            int rows = 1 + random.nextInt(12);
+            int cols = 1 + random.nextInt(12);
+            char[] cells = new char[rows * cols];
+            for (int j = 0; j < cells.length; j++) {
+                cells[j] = "  #TCc".charAt(random.nextInt(6));
+            }
+            cells[random.nextInt(cells.length)] = 'A';
+            cells[random.nextInt(cells.length)] = 'B';
+
+            StringBuilder text = new StringBuilder();
+            for (int r = 0; r < rows; r++) {
+                // blank lines of every kind in between, and sometimes a broken row
+                while (random.nextInt(4) == 0)
+                    text.append(random.nextBoolean() ? "" : "  ").append(endings[random.nextInt(3)]);
+                text.append(cells, r * cols, cols);
+                if (random.nextInt(40) == 0)
+                    text.append(random.nextBoolean() ? " " : "x");
+                if (r < rows - 1 || random.nextBoolean())
+                    text.append(endings[random.nextInt(3)]);
+            }
+            assertSameAsSequential(text.toString());
+        }
+    }
+
+    @Test
+    void sameErrorsAsSequential() throws Exception {
+        List<String> broken = new ArrayList<>();
+        broken.add("A  \n # \n  B \n");             // last row too long
+        broken.add("A  \n #\n  B\n");               // row too short in the middle
+        broken.add("A  \n\n\n # \n\n  B  \n");      // ragged after blank lines
+        broken.add("A  \r\n # \r\n  Bxx\r\n");
+        broken.add("A  \n #x\n  B\n");              // bad character
+        broken.add("A  \n # \n  B\n\n  x\n");       // bad character on a row of its own
+        broken.add("A  \n #\u00e9\n  B\n");         // non-ASCII
+        broken.add("   \n # \n  B\n");              // no start
+        broken.add("A  \n #A\n  B\n");              // two starts
+        broken.add("A  \n # \n   \n");              // no end (the last line is blank)
+        broken.add("A B\n#B#\n   \n");              // two ends
+        broken.add("");
+        broken.add("\n\n\r\n");
+        for (String text : broken) {
+            assertSameAsSequential(text);
+        }
+    }
+
+    // loads the text sequentially and with every chunk size, both have to give the same grid or the same message
+    private void assertSameAsSequential(String text) throws Exception {
+        File file = new File(directory, "maze.txt");
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+
+        MazeGrid expected = null;
+        String expectedError = null;
+        try {
+            expected = new MazeLoader().mapGrid(file.getPath());
+        } catch (IllegalArgumentException e) {
+            expectedError = e.getMessage();
+        }
+
+        for (int chunkSize : CHUNK_SIZES) {
+            String where = "chunk size " + chunkSize + " of " + text.replace("\r", "\\r").replace("\n", "\\n");
+            try {
+                MazeGrid grid = new MazeLoader().mapGrid(file.getPath(), pool, chunkSize);
+                assertNull(expectedError, where);
+                assertEquals(expected.getRows(), grid.getRows(), where);
+                assertEquals(expected.getCols(), grid.getCols(), where);
+                for (int cell = 0; cell < grid.size(); cell++) {
+                    assertEquals(expected.getCell(cell), grid.getCell(cell), where);
+                }
+            } catch (IllegalArgumentException e) {
+                assertEquals(expectedError, e.getMessage(), where);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the parallel BFS has to find a path exactly as short as the sequential one, whatever the pool size and
+// whether its levels went top-down or bottom-up
+class ParallelBFSTest {
+
+    private static final int[] THREADS = {1, 2, 4};
+
+    @Test
+    void sameLengthAsBfsOnRandomMazes() {
+        Random random = new Random(9);
+        List<MazeGrid> mazes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            mazes.add(TestMazes.random(random, 5 + random.nextInt(60), 5 + random.nextInt(60),
+                    random.nextDouble() * 0.45, random.nextInt(6), 0));
+        }
+        mazes.add(TestMazes.serpentine(41, 37));
+        for (MazeGrid maze : mazes) {
+            for (int threads : THREADS) {
+                assertSameLengthAsBfs(maze, threads);
+            }
+        }
+    }
+
+    // big open mazes: frontiers of thousands of tiles are split between the workers, and once the frontier is
+    // most of what's left the levels go bottom-up
+    @Test
+    void sameLengthAsBfsOnBigOpenMazes() {
+        Random random = new Random(10);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                int size = 300 + random.nextInt(900);
+                MazeGrid maze = openMaze(random, size, random.nextDouble() * 0.02);
+
+                SearchContext context = new SearchContext(maze);
+                ParallelBFS search = new ParallelBFS(maze, context);
+                boolean found = search.run(pool, maze.getStart(), maze.getEnd(), null);
+                assertTrue(search.getBottomUpLevels() > 0, "no level went bottom-up");
+
+                MazeSolver bfs = new MazeSolver(maze);
+                bfs.setVerbose(false);
+                int expected = TestMazes.pathLength(bfs, bfs.BFS());
+                assertEquals(expected, found ? context.getDistance(maze.getEnd()) + 1 : -1);
+
+                assertSameLengthAsBfs(maze, 4);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // the solver keeps its ParallelBFS between solves, a second solve must not see the first one's claims
+    @Test
+    void repeatedSolvesGiveTheSameLength() {
+        MazeGrid maze = TestMazes.random(new Random(11), 200, 200, 0.25, 0, 0);
+        MazeSolver solver = new MazeSolver(maze);
+        solver.setVerbose(false);
+        int first = TestMazes.pathLength(solver, solver.parallelBFS());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(first, TestMazes.pathLength(solver, solver.parallelBFS()));
+            assertEquals(first, TestMazes.pathLength(solver, solver.BFS()));
+        }
+    }
+
+    // a few random walls with A and B in opposite corners: the search goes through the whole maze, nearly every
+    // open tile is reachable, so the last levels before B are big compared to what's left and go bottom-up
+    private static MazeGrid openMaze(Random random, int size, double walls) {
+        char[][] chars = new char[size][size];
+        for (char[] row : chars) {
+            for (int j = 0; j < size; j++) {
+                row[j] = random.nextDouble() < walls ? '#' : ' ';
+            }
+        }
+        chars[0][0] = 'A';
+        chars[size - 1][size - 1] = 'B';
+        return MazeGrid.fromChars(chars);
+    }
+
+    private static void assertSameLengthAsBfs(MazeGrid maze, int threads) {
+        MazeSolver bfs = new MazeSolver(maze);
+        bfs.setVerbose(false);
+        MazeSolver parallel = new MazeSolver(maze);
+        parallel.setVerbose(false);
+
+        boolean expected = bfs.BFS();
+        boolean found = parallel.parallelBFS(threads);
+        assertEquals(expected, found);
+        assertEquals(TestMazes.pathLength(bfs, expected), TestMazes.pathLength(parallel, found), threads + " threads");
+        if (found)
+            TestMazes.assertValidPath(maze, parallel.reconstructPath(parallel.getEnd()));
+    }
+}
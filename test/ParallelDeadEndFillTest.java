@@ -0,0 +1,72 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the banded fill has to mark the same dead ends as the sequential one, whatever the bands and their order
+class ParallelDeadEndFillTest {
+
+    @Test
+    void sameDeadEndsAsSequentialFill() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (MazeGrid maze : DeadEndFillTest.generated()) {
+                assertSameAsSequentialFill(maze, pool);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // tall mazes are cut into many bands, long corridors cross them and need a lot of rounds of messages
+    @Test
+    void sameDeadEndsAcrossManyBands() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Random random = new Random(20);
+        boolean severalRounds = false;
+        try {
+            for (int i = 0; i < 20; i++) {
+                MazeGenerator generator = new MazeGenerator(200 + random.nextInt(200), 5 + random.nextInt(80), i);
+                generator.setSpecialTiles(random.nextInt(3), random.nextInt(3), random.nextInt(3));
+                MazeGrid maze = generator.generate(MazeGenerator.ALGORITHMS[i % MazeGenerator.ALGORITHMS.length]);
+                severalRounds |= assertSameAsSequentialFill(maze, pool) > 1;
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(severalRounds, "no maze needed messages between the bands");
+    }
+
+    @Test
+    void pathIsAsShortAsSequentialFill() {
+        for (MazeGrid maze : DeadEndFillTest.generated()) {
+            MazeSolver sequential = new MazeSolver(maze);
+            sequential.setVerbose(false);
+            MazeSolver parallel = new MazeSolver(maze);
+            parallel.setVerbose(false);
+            assertEquals(TestMazes.pathLength(sequential, sequential.deadEndFill()),
+                    TestMazes.pathLength(parallel, parallel.parallelDeadEndFill(3)));
+        }
+    }
+
+    // returns the number of rounds the banded fill took
+    private static int assertSameAsSequentialFill(MazeGrid maze, ForkJoinPool pool) {
+        ParallelDeadEndFill fill = new ParallelDeadEndFill(maze);
+        boolean[] isDeadEnd = fill.run(pool);
+
+        MazeSolver solver = new MazeSolver(maze);
+        solver.setVerbose(false);
+        solver.deadEndFill();
+        int deadEnds = 0;
+        for (int cell = 0; cell < maze.size(); cell++) {
+            assertEquals(solver.isDeadEnd(maze.rowOf(cell), maze.colOf(cell)), isDeadEnd[cell],
+                    "tile (" + maze.rowOf(cell) + ", " + maze.colOf(cell) + ")");
+            if (isDeadEnd[cell])
+                deadEnds++;
+        }
+        assertEquals(deadEnds, fill.getDeadEnds());
+        return fill.getRounds();
+    }
+}
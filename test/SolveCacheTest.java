@@ -0,0 +1,187 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// a cached result has to be the one a fresh solve gives, and the counters have to say where each result came from
+class SolveCacheTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    void hitsAndMissesByContent() throws Exception {
+        File first = write("first.txt", "A  #", "## #", "B   ");
+        File copy = new File(directory, "copy.txt");
+        Files.copy(first.toPath(), copy.toPath());
+
+        SolveCache cache = new SolveCache(1 << 20);
+        SolveCache.Result result = cache.solve(first.getPath(), "BFS");
+        assertTrue(result.isFound());
+        assertEquals(7, result.getPathLength());
+        assertCounts(cache, 0, 1, 0, 0);
+
+        // the same file, and another file with the same content, are hits
+        assertSame(result, cache.solve(first.getPath(), "BFS"));
+        assertSame(result, cache.solve(copy.getPath(), "BFS"));
+        assertCounts(cache, 2, 1, 0, 0);
+
+        // another algorithm is another result
+        SolveCache.Result aStar = cache.solve(first.getPath(), "AStar");
+        assertEquals(result.getPathLength(), aStar.getPathLength());
+        assertCounts(cache, 2, 2, 0, 0);
+        assertEquals(2, cache.size());
+
+        // a changed file is loaded again
+        write("first.txt", "A   ", "### ", "B   ");
+        assertTrue(first.setLastModified(first.lastModified() + 2000));
+        assertEquals(9, cache.solve(first.getPath(), "BFS").getPathLength());
+        assertCounts(cache, 2, 3, 0, 0);
+    }
+
+    @Test
+    void leastRecentlyUsedResultsAreEvicted() {
+        MazeGrid[] mazes = {
+            TestMazes.of("A  B"),
+            TestMazes.of("A   B"),
+            TestMazes.of("A    B"),
+        };
+        // room for two results with paths of up to 6 tiles
+        SolveCache cache = new SolveCache(2 * (128 + 4 * 6));
+        for (MazeGrid maze : mazes) {
+            cache.solve(solver(maze), "BFS");
+        }
+        assertCounts(cache, 0, 3, 1, 0);
+        assertEquals(2, cache.size());
+        assertTrue(cache.getBytes() <= 2 * (128 + 4 * 6));
+
+        // the first one was evicted, the third one is still there
+        cache.solve(solver(mazes[2]), "BFS");
+        assertCounts(cache, 1, 3, 1, 0);
+        cache.solve(solver(mazes[0]), "BFS");
+        assertCounts(cache, 1, 4, 2, 0);
+        // that evicted the second one, the least recently used
+        cache.solve(solver(mazes[2]), "BFS");
+        cache.solve(solver(mazes[1]), "BFS");
+        assertCounts(cache, 2, 5, 3, 0);
+    }
+
+    @Test
+    void evictedResultsComeBackFromDisk() throws Exception {
+        File results = new File(directory, "results");
+        MazeGrid small = TestMazes.of("A  B");
+        MazeGrid big = TestMazes.of("A     B");
+
+        SolveCache cache = new SolveCache(128 + 4 * 7, results);
+        SolveCache.Result result = cache.solve(solver(small), "AStar");
+        cache.solve(solver(big), "AStar");
+        assertEquals(1, cache.getEvictions());
+
+        SolveCache.Result fromDisk = cache.solve(solver(small), "AStar");
+        assertEquals(1, cache.getDiskHits());
+        assertSameResult(result, fromDisk);
+
+        // a new cache on the same directory starts with the results of the old one
+        SolveCache restarted = new SolveCache(1 << 20, results);
+        assertSameResult(result, restarted.solve(solver(small), "AStar"));
+        assertEquals(1, restarted.getDiskHits());
+        assertEquals(0, restarted.getMisses());
+    }
+
+    @Test
+    void teleportMazesAreBypassedByDefault() {
+        MazeGrid maze = TestMazes.of("A T  ", "#####", "  B  ");
+        SolveCache cache = new SolveCache(1 << 20);
+        for (int i = 0; i < 3; i++) {
+            MazeSolver solver = solver(maze);
+            solver.setSeed(5);
+            assertTrue(cache.solve(solver, "BFS").isFound());
+        }
+        assertCounts(cache, 0, 0, 0, 3);
+        assertEquals(0, cache.size());
+
+        // point to point queries walk over teleports, they are cached anyway
+        cache.solve(solver(maze), 0, 0, 0, 4);
+        cache.solve(solver(maze), 0, 0, 0, 4);
+        assertCounts(cache, 1, 1, 0, 3);
+    }
+
+    @Test
+    void seededPolicyCachesPerSeed() {
+        MazeGrid maze = TestMazes.of("A T  ", "#####", "  B  ", "     ");
+        SolveCache cache = new SolveCache(1 << 20);
+        cache.setTeleportPolicy(SolveCache.TeleportPolicy.SEEDED);
+
+        SolveCache.Result first = cache.solve(seeded(maze, 1), "BFS");
+        assertCounts(cache, 0, 1, 0, 0);
+        assertSame(first, cache.solve(seeded(maze, 1), "BFS"));
+        assertCounts(cache, 1, 1, 0, 0);
+
+        // the cached result is what a fresh solver with that seed finds
+        MazeSolver fresh = seeded(maze, 1);
+        assertTrue(fresh.BFS());
+        int[] cells = fresh.reconstructPath(fresh.getEnd()).stream()
+                .mapToInt(tile -> maze.index(tile.getRow(), tile.getCol())).toArray();
+        assertArrayEquals(cells, first.getCells());
+
+        cache.solve(seeded(maze, 2), "BFS");
+        assertCounts(cache, 1, 2, 0, 0);
+
+        // unseeded solvers and parallelBFS still skip the cache
+        cache.solve(solver(maze), "BFS");
+        cache.solve(seeded(maze, 1), "parallelBFS");
+        assertCounts(cache, 1, 2, 0, 2);
+    }
+
+    @Test
+    void rememberedFilesAreBounded() throws Exception {
+        File first = write("maze0.txt", "A   B");
+        SolveCache cache = new SolveCache(1 << 20);
+        cache.solve(first.getPath(), "BFS");
+        for (int i = 1; i <= SolveCache.MAX_FILES + 10; i++) {
+            File copy = new File(directory, "maze" + i + ".txt");
+            Files.copy(first.toPath(), copy.toPath(), StandardCopyOption.COPY_ATTRIBUTES);
+            cache.solve(copy.getPath(), "BFS");
+        }
+        assertEquals(SolveCache.MAX_FILES, cache.knownFiles());
+        // every file had the same content, so it was one solve
+        assertCounts(cache, SolveCache.MAX_FILES + 10, 1, 0, 0);
+        assertEquals(1, cache.size());
+    }
+
+    private static MazeSolver solver(MazeGrid maze) {
+        MazeSolver solver = new MazeSolver(maze);
+        solver.setVerbose(false);
+        return solver;
+    }
+
+    private static MazeSolver seeded(MazeGrid maze, long seed) {
+        MazeSolver solver = solver(maze);
+        solver.setSeed(seed);
+        return solver;
+    }
+
+    private File write(String name, String... rows) throws Exception {
+        File file = new File(directory, name);
+        Files.writeString(file.toPath(), String.join("\n", rows) + "\n");
+        return file;
+    }
+
+    private static void assertCounts(SolveCache cache, long hits, long misses, long evictions, long bypasses) {
+        assertEquals(hits, cache.getHits(), "hits of " + cache);
+        assertEquals(misses, cache.getMisses(), "misses of " + cache);
+        assertEquals(evictions, cache.getEvictions(), "evictions of " + cache);
+        assertEquals(bypasses, cache.getBypasses(), "bypasses of " + cache);
+    }
+
+    private static void assertSameResult(SolveCache.Result expected, SolveCache.Result actual) {
+        assertEquals(expected.isFound(), actual.isFound());
+        assertArrayEquals(expected.getCells(), actual.getCells());
+        assertEquals(expected.getCounter(), actual.getCounter());
+        assertEquals(expected.getExpansions(), actual.getExpansions());
+    }
+}
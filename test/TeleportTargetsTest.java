@@ -0,0 +1,145 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// the free tiles have to be exactly the open tiles that weren't removed, and after a reset they have to be in the same
+// order again so seeded solves draw the same targets
+class TeleportTargetsTest {
+
+    @Test
+    void removedTilesAreNeverPicked() {
+        Random random = new Random(22);
+        MazeGrid maze = TestMazes.random(random, 20, 30, 0.3, 4, 3);
+        TeleportTargets targets = new TeleportTargets(maze);
+        Set<Integer> free = openTiles(maze);
+        assertEquals(free, new HashSet<>(all(targets)));
+
+        while (!free.isEmpty()) {
+            int cell = random.nextInt(maze.size());
+            targets.remove(cell);
+            free.remove(cell);
+            // a second removal, or removing a wall, changes nothing
+            targets.remove(cell);
+            assertEquals(free.size(), targets.size());
+            List<Integer> all = all(targets);
+            assertEquals(free.size(), all.size());
+            assertEquals(free, new HashSet<>(all));
+        }
+    }
+
+    @Test
+    void nothingFreeGivesMinusOne() {
+        MazeGrid maze = TestMazes.of("A T B");
+        TeleportTargets targets = new TeleportTargets(maze);
+        for (int cell = 0; cell < maze.size(); cell++) {
+            targets.remove(cell);
+        }
+        assertEquals(0, targets.size());
+        assertEquals(-1, targets.pick(new Random(1)));
+
+        targets.reset();
+        assertEquals(maze.size(), targets.size());
+        assertNotEquals(-1, targets.pick(new Random(1)));
+    }
+
+    // reset has to put the tiles back in the same order, otherwise a seeded Random draws different tiles
+    @Test
+    void resetRestoresTheOrder() {
+        Random random = new Random(23);
+        for (int i = 0; i < 50; i++) {
+            MazeGrid maze = TestMazes.random(random, 5 + random.nextInt(20), 5 + random.nextInt(20), 0.3, 2, 2);
+            TeleportTargets targets = new TeleportTargets(maze);
+            List<Integer> order = all(targets);
+
+            for (int round = 0; round < 3; round++) {
+                int removals = random.nextInt(maze.size() * 2);
+                for (int r = 0; r < removals; r++) {
+                    targets.remove(random.nextInt(maze.size()));
+                }
+                targets.reset();
+                assertEquals(order, all(targets));
+            }
+        }
+    }
+
+    @Test
+    void wallEditsRebuildOnReset() {
+        MazeGrid maze = TestMazes.of(
+                "A    ",
+                "  T  ",
+                "    B");
+        TeleportTargets targets = new TeleportTargets(maze);
+        targets.remove(maze.index(0, 1));
+
+        maze.setWall(maze.index(0, 3), true);
+        maze.setWall(maze.index(1, 0), true);
+        targets.reset();
+        assertEquals(openTiles(maze), new HashSet<>(all(targets)));
+        assertEquals(13, targets.size());
+
+        maze.setWall(maze.index(1, 0), false);
+        targets.reset();
+        assertEquals(openTiles(maze), new HashSet<>(all(targets)));
+        assertEquals(14, targets.size());
+    }
+
+    // a seeded solver makes the same teleport draws on every solve after resetMaze
+    @Test
+    void seededSolvesRepeat() {
+        Random random = new Random(24);
+        for (int i = 0; i < 100; i++) {
+            MazeGrid maze = TestMazes.random(random, 5 + random.nextInt(25), 5 + random.nextInt(25), 0.3, 2, 3);
+            MazeSolver solver = new MazeSolver(maze);
+            solver.setVerbose(false);
+            solver.setSeed(i);
+            boolean found = solver.BFS();
+            List<Tile> path = found ? solver.reconstructPath(solver.getEnd()) : List.of();
+
+            for (int round = 0; round < 2; round++) {
+                solver.resetMaze();
+                assertEquals(found, solver.BFS());
+                assertEquals(cells(maze, path), cells(maze, found ? solver.reconstructPath(solver.getEnd()) : List.of()));
+            }
+        }
+    }
+
+    // the free tiles in array order, read out by a Random that draws every slot once
+    private static List<Integer> all(TeleportTargets targets) {
+        List<Integer> cells = new ArrayList<>();
+        Random slots = new Random() {
+            private int next;
+
+            @Override
+            public int nextInt(int bound) {
+                return next++;
+            }
+        };
+        for (int i = 0; i < targets.size(); i++) {
+            cells.add(targets.pick(slots));
+        }
+        return cells;
+    }
+
+    private static Set<Integer> openTiles(MazeGrid maze) {
+        Set<Integer> open = new HashSet<>();
+        for (int cell = 0; cell < maze.size(); cell++) {
+            if (!maze.isWall(cell))
+                open.add(cell);
+        }
+        return open;
+    }
+
+    private static List<Integer> cells(MazeGrid maze, List<Tile> path) {
+        List<Integer> cells = new ArrayList<>();
+        for (Tile tile : path) {
+            cells.add(maze.index(tile.getRow(), tile.getCol()));
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,111 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// mazes for the tests: the sample files in Mazes/, small ones drawn as text and random ones
+final class TestMazes {
+
+    private TestMazes() {
+    }
+
+    // rows of maze file characters, e.g. "#A  B#"
+    static MazeGrid of(String... rows) {
+        char[][] chars = new char[rows.length][];
+        for (int i = 0; i < rows.length; i++) {
+            chars[i] = rows[i].toCharArray();
+        }
+        return MazeGrid.fromChars(chars);
+    }
+
+    static List<MazeGrid> samples() throws IOException {
+        File[] files = new File("Mazes").listFiles((dir, name) -> name.endsWith(".txt"));
+        Arrays.sort(files);
+        List<MazeGrid> mazes = new ArrayList<>();
+        for (File file : files) {
+            mazes.add(MazeFile.load(file.getPath()));
+        }
+        return mazes;
+    }
+
+    // a random maze with an A, a B, walls with the given density and a few counters (and teleports if asked)
+    static MazeGrid random(Random random, int rows, int cols, double walls, int counters, int teleports) {
+        char[][] chars = new char[rows][cols];
+        List<Integer> cells = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                chars[i][j] = random.nextDouble() < walls ? '#' : ' ';
+                cells.add(i * cols + j);
+            }
+        }
+        Collections.shuffle(cells, random);
+
+        int next = 0;
+        place(chars, cells.get(next++), 'A');
+        place(chars, cells.get(next++), 'B');
+        for (int i = 0; i < counters; i++) {
+            place(chars, cells.get(next++), random.nextBoolean() ? 'C' : 'c');
+        }
+        for (int i = 0; i < teleports; i++) {
+            place(chars, cells.get(next++), 'T');
+        }
+        return MazeGrid.fromChars(chars);
+    }
+
+    // one corridor winding down through the whole maze (A top left, B at its far end), every level of a BFS
+    // on it is a single tile
+    static MazeGrid serpentine(int rows, int cols) {
+        char[][] chars = new char[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                // odd rows are walls except for one gap, alternating between the right and the left end
+                boolean gap = i % 4 == 1 ? j == cols - 1 : j == 0;
+                chars[i][j] = i % 2 == 1 && !gap ? '#' : ' ';
+            }
+        }
+        chars[0][0] = 'A';
+        int last = rows - 1 - (rows - 1) % 2;
+        chars[last][last % 4 == 0 ? cols - 1 : 0] = 'B';
+        return MazeGrid.fromChars(chars);
+    }
+
+    private static void place(char[][] chars, int cell, char tile) {
+        chars[cell / chars[0].length][cell % chars[0].length] = tile;
+    }
+
+    // an independent grid with the same tiles, for solving fresh next to one that gets edited
+    static MazeGrid copy(MazeGrid maze) {
+        byte[] cells = new byte[maze.size()];
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = maze.getCell(cell);
+        }
+        return new MazeGrid(maze.getRows(), maze.getCols(), cells);
+    }
+
+    // every tile once, each step to a neighbor (or away from a teleport)
+    static void assertValidPath(MazeGrid maze, List<Tile> path) {
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < path.size(); i++) {
+            Tile tile = path.get(i);
+            assertFalse(tile.isWall());
+            assertTrue(seen.add(maze.index(tile.getRow(), tile.getCol())), "tile visited twice");
+            if (i > 0) {
+                Tile previous = path.get(i - 1);
+                int distance = Math.abs(previous.getRow() - tile.getRow()) + Math.abs(previous.getCol() - tile.getCol());
+                assertTrue(distance == 1 || previous.isTeleport(), "path jumps between tiles");
+            }
+        }
+    }
+
+    // length of the path to the end found by the last solve, -1 if there is none
+    static int pathLength(MazeSolver solver, boolean found) {
+        return found ? solver.reconstructPath(solver.getEnd()).size() : -1;
+    }
+}
@@ -0,0 +1,260 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// a trace has to give back exactly the events that were recorded, and a player that jumps around in it has to show
+// the same grid as one that played the events from the start up to that step
+class TraceTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    void eventsDecodeToWhatWasRecorded() {
+        Random random = new Random(25);
+        MazeGrid maze = TestMazes.random(random, 300, 300, 0, 0, 0);
+        TraceRecorder recorder = new TraceRecorder(maze, "none");
+        Log log = new Log();
+        SolverListener both = SolverListener.both(recorder, log);
+        for (int i = 0; i < 5000; i++) {
+            // mostly small moves, but also jumps over the whole maze and counters going down and below zero
+            int cell = random.nextInt(4) == 0 ? random.nextInt(maze.size())
+                    : Math.floorMod(log.cell + random.nextInt(7) - 3, maze.size());
+            switch (random.nextInt(4)) {
+                case 0 -> both.visited(cell);
+                case 1 -> both.deadEnd(cell);
+                case 2 -> both.path(cell);
+                default -> both.step(random.nextInt(4) == 0 ? random.nextInt() : log.counter + random.nextInt(5) - 2);
+            }
+        }
+        SolveTrace trace = recorder.finish();
+        assertEquals(log.events.size(), trace.getEvents());
+        assertEquals(log.steps, trace.getSteps());
+
+        SolveTrace.Cursor cursor = trace.cursorAt(0);
+        for (int[] event : log.events) {
+            assertTrue(cursor.peek());
+            assertEquals(event[0], cursor.type);
+            assertEquals(event[1], cursor.value);
+            cursor.advance();
+        }
+        assertFalse(cursor.peek());
+    }
+
+    @Test
+    void keyframesOfEveryTraceLength() throws Exception {
+        assertEquals(1, SolveTrace.keyframes(0));
+        assertEquals(1, SolveTrace.keyframes(1));
+        assertEquals(1, SolveTrace.keyframes(SolveTrace.KEYFRAME_STEPS));
+        assertEquals(2, SolveTrace.keyframes(SolveTrace.KEYFRAME_STEPS + 1));
+        assertEquals(3, SolveTrace.keyframes(3 * SolveTrace.KEYFRAME_STEPS));
+
+        // a trace ending right on a keyframe step, or one after it, still loads (the file has keyframes(steps))
+        MazeGrid maze = TestMazes.of("A  B");
+        int k = SolveTrace.KEYFRAME_STEPS;
+        for (int steps : new int[] {0, 1, k - 1, k, k + 1, 2 * k, 2 * k + 1}) {
+            TraceRecorder recorder = new TraceRecorder(maze, "none");
+            for (int i = 1; i <= steps; i++) {
+                recorder.visited(i % 4);
+                recorder.step(i);
+            }
+            SolveTrace loaded = saveAndLoad(recorder.finish());
+            assertEquals(steps, loaded.getSteps());
+
+            TracePlayer player = new TracePlayer(loaded);
+            for (int target = steps; target >= 0; target -= Math.max(1, steps / 7)) {
+                player.seek(target, cell -> { });
+                assertEquals(target, player.getStep());
+                assertEquals(target, player.getCounter());
+            }
+        }
+    }
+
+    @Test
+    void seekingMatchesALinearReplay() throws Exception {
+        Random random = new Random(26);
+        String[] algorithms = {"BFS", "DFS", "AStar", "bidirectionalBFS", "deadEndFill"};
+        for (int i = 0; i < algorithms.length; i++) {
+            MazeGrid maze = new MazeGenerator(201, 241, i).generate(MazeGenerator.ALGORITHMS[i]);
+            Log log = new Log();
+            SolveTrace trace = record(maze, algorithms[i], log);
+            assertTrue(trace.getSteps() > 3 * SolveTrace.KEYFRAME_STEPS, algorithms[i] + " has too few steps");
+            assertTrue(trace.matches(maze));
+
+            assertSeeksMatch(trace, log, random);
+            SolveTrace loaded = saveAndLoad(trace);
+            assertEquals(trace.getAlgorithm(), loaded.getAlgorithm());
+            assertEquals(trace.getEvents(), loaded.getEvents());
+            assertEquals(trace.getSizeInBytes(), loaded.getSizeInBytes());
+            assertTrue(loaded.matches(maze));
+            assertSeeksMatch(loaded, log, random);
+        }
+    }
+
+    // both halves of a bidirectional search can visit a tile, undoing the second visit must leave it visited
+    @Test
+    void undoingASecondVisitKeepsTheTileVisited() {
+        MazeGrid maze = TestMazes.of("A  B");
+        TraceRecorder recorder = new TraceRecorder(maze, "none");
+        recorder.visited(1);
+        recorder.step(1);
+        recorder.visited(2);
+        recorder.step(2);
+        recorder.visited(1);
+        recorder.step(3);
+
+        // the events of a step come in front of its step event, so the second visit belongs to step 2
+        TracePlayer player = new TracePlayer(recorder.finish());
+        player.seek(3, cell -> { });
+        assertTrue(player.isVisited(1));
+        List<Integer> changed = new ArrayList<>();
+        player.seek(1, changed::add);
+        assertTrue(player.isVisited(1));
+        assertTrue(player.isVisited(2));
+        assertTrue(changed.isEmpty());
+        player.seek(0, changed::add);
+        assertTrue(player.isVisited(1));
+        assertFalse(player.isVisited(2));
+        assertEquals(List.of(2), changed);
+    }
+
+    @Test
+    void loadedTraceOnlyMatchesItsMaze() throws Exception {
+        MazeGrid maze = new MazeGenerator(31, 31, 3).generate("kruskal");
+        SolveTrace loaded = saveAndLoad(record(maze, "BFS", new Log()));
+        assertTrue(loaded.matches(maze));
+        assertFalse(loaded.matches(new MazeGenerator(31, 31, 4).generate("kruskal")));
+    }
+
+    // jumps to random steps (and past both ends), every time the grid must be what a fresh player shows after
+    // playing straight to that step, and every tile that changed must have been reported
+    private static void assertSeeksMatch(SolveTrace trace, Log log, Random random) {
+        TracePlayer player = new TracePlayer(trace);
+        int cells = trace.getRows() * trace.getCols();
+        for (int i = 0; i < 60; i++) {
+            int target = random.nextInt(trace.getSteps() + 20) - 10;
+            if (i % 10 == 0)
+                target = player.getStep() - 1 - random.nextInt(3);       // small steps back, often across a keyframe
+            int expectedStep = Math.max(0, Math.min(trace.getSteps(), target));
+
+            byte[] before = shown(player, cells);
+            Set<Integer> reported = new HashSet<>();
+            player.seek(target, reported::add);
+            byte[] after = shown(player, cells);
+            assertEquals(expectedStep, player.getStep());
+
+            byte[] expected = log.replay(expectedStep, cells);
+            assertArrayEquals(expected, after, "seek to " + target);
+            assertEquals(log.counterAt(expectedStep), player.getCounter());
+
+            TracePlayer fresh = new TracePlayer(trace);
+            fresh.seek(expectedStep, cell -> { });
+            assertArrayEquals(shown(fresh, cells), after);
+
+            for (int cell = 0; cell < cells; cell++) {
+                if (before[cell] != after[cell])
+                    assertTrue(reported.contains(cell), "tile " + cell + " changed without being reported");
+            }
+        }
+    }
+
+    private static byte[] shown(TracePlayer player, int cells) {
+        byte[] shown = new byte[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            shown[cell] = (byte) ((player.isVisited(cell) ? 1 : 0) | (player.isDeadEnd(cell) ? 2 : 0)
+                    | (player.isOnPath(cell) ? 4 : 0));
+        }
+        return shown;
+    }
+
+    // solves the maze while recording it, the path goes in after the search like in MazeCLI
+    private static SolveTrace record(MazeGrid maze, String algorithm, Log log) {
+        MazeSolver solver = new MazeSolver(maze);
+        solver.setVerbose(false);
+        TraceRecorder recorder = new TraceRecorder(maze, algorithm);
+        SolverListener both = SolverListener.both(recorder, log);
+        solver.setListener(both);
+        assertTrue(solver.solve(algorithm));
+        for (Tile tile : solver.reconstructPath(solver.getEnd())) {
+            both.path(maze.index(tile.getRow(), tile.getCol()));
+        }
+        return recorder.finish();
+    }
+
+    private SolveTrace saveAndLoad(SolveTrace trace) throws Exception {
+        File file = new File(directory, "maze" + SolveTrace.EXTENSION);
+        trace.save(file.getPath());
+        return SolveTrace.load(file.getPath());
+    }
+
+    // every event as it was sent, the reference the trace is checked against
+    private static class Log implements SolverListener {
+        final List<int[]> events = new ArrayList<>();
+        int steps;
+        int cell;
+        int counter;
+
+        @Override
+        public void visited(int cell) {
+            events.add(new int[] {SolveTrace.VISITED, cell});
+            this.cell = cell;
+        }
+
+        @Override
+        public void deadEnd(int cell) {
+            events.add(new int[] {SolveTrace.DEAD_END, cell});
+            this.cell = cell;
+        }
+
+        @Override
+        public void path(int cell) {
+            events.add(new int[] {SolveTrace.PATH, cell});
+            this.cell = cell;
+        }
+
+        @Override
+        public void step(int counter) {
+            events.add(new int[] {SolveTrace.STEP, counter});
+            this.counter = counter;
+            steps++;
+        }
+
+        // the grid after the first n steps and everything that came with them (up to the step after them)
+        byte[] replay(int n, int cells) {
+            byte[] shown = new byte[cells];
+            int steps = 0;
+            for (int[] event : events) {
+                if (event[0] == SolveTrace.STEP) {
+                    if (steps == n)
+                        break;
+                    steps++;
+                } else {
+                    shown[event[1]] |= event[0] == SolveTrace.VISITED ? 1 : event[0] == SolveTrace.DEAD_END ? 2 : 4;
+                }
+            }
+            return shown;
+        }
+
+        int counterAt(int n) {
+            int steps = 0;
+            int counter = 0;
+            for (int[] event : events) {
+                if (event[0] == SolveTrace.STEP) {
+                    if (steps == n)
+                        break;
+                    counter = event[1];
+                    steps++;
+                }
+            }
+            return counter;
+        }
+    }
+}